@@ -2,20 +2,46 @@ plugins {
     id("java")
     id ("io.spring.dependency-management") version "1.1.6"
     id ("org.springframework.boot") version "3.3.5"
+    id ("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
 version = "1.0-SNAPSHOT"
 
+// Виртуальные потоки (spring.threads.virtual.enabled, perfTest) требуют JDK 21: на более старом JDK Spring молча
+// оставляет обычные потоки
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
 repositories {
     mavenCentral()
 }
 
+sourceSets {
+    create("perfTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val perfTestImplementation by configurations.getting {
+    extendsFrom(configurations.implementation.get(), configurations.testImplementation.get())
+}
+
+val perfTestRuntimeOnly by configurations.getting {
+    extendsFrom(configurations.runtimeOnly.get(), configurations.testRuntimeOnly.get())
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     testImplementation("org.mockito:mockito-core:2.1.0")
     testImplementation("org.mockito:mockito-junit-jupiter:5.14.2")
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("com.h2database:h2")
 
     // Spring
     implementation("org.springframework.boot:spring-boot-starter-web")
@@ -23,12 +49,22 @@ dependencies {
     implementation ("org.springframework.boot:spring-boot-starter-security")
     implementation ("org.springframework.boot:spring-boot-starter-validation")
     implementation ("org.springframework.security:spring-security-crypto")
+    implementation ("org.springframework.boot:spring-boot-starter-actuator")
+
+    // Metrics
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("org.hibernate.orm:hibernate-micrometer")
 
     //Jwt
     implementation ("io.jsonwebtoken:jjwt-api:0.11.5")
     runtimeOnly ("io.jsonwebtoken:jjwt-impl:0.11.5")
     runtimeOnly ("io.jsonwebtoken:jjwt-jackson:0.11.5")
 
+    // Caches
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("com.github.ben-manes.caffeine:jcache")
+
     // PostgreSQL
     implementation("org.postgresql:postgresql:42.7.2")
 
@@ -39,6 +75,41 @@ dependencies {
     testAnnotationProcessor ("org.projectlombok:lombok:1.18.30")
 }
 
+// ./gradlew jmh - результаты в build/results/jmh/results.json, их можно сравнивать между коммитами
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    includes.set(listOfNotNull(project.findProperty("jmh.includes")?.toString()))
+}
+
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+tasks.register<Test>("perfTest") {
+    description = "Runs the in-process load tests and fails when the performance budget is exceeded."
+    group = "verification"
+    testClassesDirs = sourceSets["perfTest"].output.classesDirs
+    classpath = sourceSets["perfTest"].runtimeClasspath
+    useJUnitPlatform()
+    shouldRunAfter(tasks.test)
+    systemProperties(project.properties.filterKeys { it.startsWith("perf.") })
+    outputs.upToDateWhen { false }
+}
+
+tasks.register<JavaExec>("loadBenchmark") {
+    description = "Runs the same load against the app with platform and with virtual request threads."
+    group = "verification"
+    classpath = sourceSets["perfTest"].runtimeClasspath
+    mainClass.set("org.example.perf.ThreadModeLoadBenchmark")
+    jvmArgs("-Djdk.tracePinnedThreads=short")
+    systemProperties(project.properties.filterKeys { it.startsWith("benchmark.") })
+}
+tasks.register<JavaExec>("generateDataset") {
+    description = "Loads a synthetic dataset of users, projects, task states and tasks with batched JDBC inserts."
+    group = "application"
+    classpath = sourceSets["perfTest"].runtimeClasspath
+    mainClass.set("org.example.perf.DatasetGenerator")
+    systemProperties(project.properties.filterKeys { it.startsWith("dataset.") })
+}
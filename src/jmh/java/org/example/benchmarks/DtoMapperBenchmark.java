@@ -0,0 +1,76 @@
+package org.example.benchmarks;
+
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.TaskDto;
+import org.example.api.dto.TaskStateDto;
+import org.example.api.mappers.TaskDtoMapper;
+import org.example.api.mappers.TaskStateDtoMapper;
+import org.example.store.entities.TaskStateEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+DtoMapperBenchmark:
+Построение DTO всей доски (TaskStateDtoMapper -> TaskDtoMapper) для досок разного размера.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMapperBenchmark {
+
+    @Param({"30"})
+    private int taskStates;
+
+    @Param({"100", "1000", "10000"})
+    private int tasksPerTaskState;
+
+    private List<TaskStateEntity> board;
+
+    private TaskDtoMapper taskDtoMapper;
+
+    private TaskStateDtoMapper taskStateDtoMapper;
+
+    @Setup
+    public void setUp() {
+
+        board = new InMemoryBoard(taskStates, tasksPerTaskState).getTaskStates();
+
+        taskDtoMapper = new TaskDtoMapper();
+        taskStateDtoMapper = new TaskStateDtoMapper(taskDtoMapper, new TaskRankHelper(null));
+    }
+
+    @Benchmark
+    public List<TaskStateDto> mapBoard() {
+
+        return board
+                .stream()
+                .map(taskStateDtoMapper::createTaskStateDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<TaskDto> mapLargestTaskState() {
+
+        return board
+                .get(0)
+                .getTasks()
+                .stream()
+                .map(taskDtoMapper::createTaskDto)
+                .toList();
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.benchmarks;
+
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/*
+InMemoryBoard:
+Доска в памяти (проект, цепочка колонок, задачи с позициями) и репозитории поверх неё.
+Репозитории - динамические прокси, которые реализуют только методы, нужные бенчмаркам,
+с той же семантикой, что и JPQL-запросы в TaskRepository и TaskStateRepository.
+ */
+public class InMemoryBoard {
+
+    public static final long PROJECT_ID = 1L;
+
+    private final ProjectEntity project;
+
+    private final List<TaskStateEntity> taskStates = new ArrayList<>();
+
+    private final Map<Long, TaskStateEntity> taskStatesById = new HashMap<>();
+
+    private final Map<Long, TaskEntity> tasksById = new HashMap<>();
+
+    public InMemoryBoard(int taskStatesCount, int tasksPerTaskState) {
+
+        project = ProjectEntity.builder()
+                .id(PROJECT_ID)
+                .name("benchmark")
+                .taskStates(taskStates)
+                .build();
+
+        long taskId = 1;
+        TaskStateEntity previous = null;
+
+        for (int i = 0; i < taskStatesCount; i++) {
+
+            TaskStateEntity taskState = TaskStateEntity.builder()
+                    .id((long) i + 1)
+                    .name("state-" + i)
+                    .ordinal(i)
+                    .project(project)
+                    .leftTaskState(previous)
+                    .tasks(new ArrayList<>())
+                    .build();
+
+            if (previous != null) {
+                previous.setRightTaskState(taskState);
+            }
+
+            for (int j = 0; j < tasksPerTaskState; j++) {
+
+                TaskEntity task = TaskEntity.builder()
+                        .id(taskId++)
+                        .name("task-" + i + "-" + j)
+                        .description("Description of task " + j + " in state " + i)
+                        .position(j)
+                        .taskState(taskState)
+                        .build();
+
+                taskState.getTasks().add(task);
+                tasksById.put(task.getId(), task);
+            }
+
+            taskStates.add(taskState);
+            taskStatesById.put(taskState.getId(), taskState);
+            previous = taskState;
+        }
+    }
+
+    public ProjectEntity getProject() {
+        return project;
+    }
+
+    public List<TaskStateEntity> getTaskStates() {
+        return taskStates;
+    }
+
+    public TaskStateEntity getTaskState(Long taskStateId) {
+        return taskStatesById.get(taskStateId);
+    }
+
+    public TaskEntity getTask(Long taskId) {
+        return tasksById.get(taskId);
+    }
+
+    public TaskStateEntity getFirstTaskState() {
+
+        return taskStates
+                .stream()
+                .min(Comparator.comparingInt(TaskStateEntity::getOrdinal))
+                .orElseThrow();
+    }
+
+    public TaskRepository taskRepository() {
+
+        return repository(TaskRepository.class, Map.of(
+                "countByTaskStateId", args -> (long) taskStatesById.get((Long) args[0]).getTasks().size(),
+                "shiftPositionsLeft", args -> shiftPositions((Long) args[0], (int) args[1], (int) args[2], -1),
+                "shiftPositionsRight", args -> shiftPositions((Long) args[0], (int) args[1], (int) args[2], 1),
+                "saveAndFlush", args -> args[0]
+        ));
+    }
+
+    public TaskStateRepository taskStateRepository() {
+
+        return repository(TaskStateRepository.class, Map.of(
+                "findFirstByProjectIdOrderByOrdinalAsc", args -> Optional.of(getFirstTaskState()),
+                "shiftOrdinalsLeft", args -> shiftOrdinals((int) args[1], (int) args[2], -1),
+                "shiftOrdinalsRight", args -> shiftOrdinals((int) args[1], (int) args[2], 1),
+                "saveAndFlush", args -> args[0]
+        ));
+    }
+
+    // shiftPositionsLeft: (from, to], shiftPositionsRight: [from, to)
+    private int shiftPositions(Long taskStateId, int from, int to, int delta) {
+
+        int updated = 0;
+
+        for (TaskEntity task : taskStatesById.get(taskStateId).getTasks()) {
+
+            int position = task.getPosition();
+
+            boolean inRange = delta < 0
+                    ? position > from && position <= to
+                    : position >= from && position < to;
+
+            if (inRange) {
+                task.setPosition(position + delta);
+                updated++;
+            }
+        }
+
+        return updated;
+    }
+
+    private int shiftOrdinals(int from, int to, int delta) {
+
+        int updated = 0;
+
+        for (TaskStateEntity taskState : taskStates) {
+
+            int ordinal = taskState.getOrdinal();
+
+            boolean inRange = delta < 0
+                    ? ordinal > from && ordinal <= to
+                    : ordinal >= from && ordinal < to;
+
+            if (inRange) {
+                taskState.setOrdinal(ordinal + delta);
+                updated++;
+            }
+        }
+
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+
+            Function<Object[], Object> implementation = methods.get(method.getName());
+
+            if (implementation != null) {
+                return implementation.apply(args);
+            }
+
+            if (method.getName().equals("toString")) {
+                return "InMemory" + type.getSimpleName();
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.AuthenticatedUser;
+import org.example.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+JwtValidationBenchmark:
+Стоимость проверки токена на один запрос: прежняя реализация (новый парсер и ключ на каждый вызов)
+против JwtUtil, где токен после первой проверки берётся из кэша проверенных токенов, и стоимость выпуска токена.
+Запуск: ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "dasd231adsdge21352adadcxzcvhd321edsadadasdadxzxc3213dasdsxzcasdczdcszd";
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+
+        jwtUtil = new JwtUtil(SECRET, Duration.ofHours(1), 10000, new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("benchmarkUser", 1L);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parserPerRequest() {
+
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(SECRET)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        return new AuthenticatedUser(claims.get("uid", Number.class).longValue(), claims.getSubject());
+    }
+
+    @Benchmark
+    public String generateToken() {
+
+        return jwtUtil.generateToken("benchmarkUser", 1L);
+    }
+
+    @Benchmark
+    public AuthenticatedUser cachedVerifiedToken() {
+
+        return jwtUtil.validateTokenAndGetUser(token);
+    }
+}
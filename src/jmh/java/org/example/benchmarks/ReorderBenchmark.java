@@ -0,0 +1,195 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.api.controllers.TaskController;
+import org.example.api.controllers.TaskStateController;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
+import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.TaskDto;
+import org.example.api.dto.TaskStateDto;
+import org.example.api.mappers.TaskDtoMapper;
+import org.example.api.mappers.TaskStateDtoMapper;
+import org.example.store.entities.BoardChangeType;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.repositories.ProjectOwnershipProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/*
+ReorderBenchmark:
+TaskController.changeTaskPosition и TaskStateController.changeTaskStatePosition на доске в памяти (InMemoryBoard):
+сдвиги позиций и ordinal выполняются репозиториями-заглушками с той же семантикой, что и UPDATE в базе.
+Задача (колонка) по очереди переносится из начала в конец и обратно, поэтому доска между вызовами не вырождается.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReorderBenchmark {
+
+    @Param({"30"})
+    private int taskStates;
+
+    @Param({"100", "1000", "10000"})
+    private int tasksPerTaskState;
+
+    private InMemoryBoard board;
+
+    private TaskController taskController;
+
+    private TaskStateController taskStateController;
+
+    private Long movedTaskId;
+
+    private boolean taskAtEnd;
+
+    private Long movedTaskStateId;
+
+    private Long lastTaskStateId;
+
+    private boolean taskStateAtEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        board = new InMemoryBoard(taskStates, tasksPerTaskState);
+
+        ControllerHelper controllerHelper = new ControllerHelper(null, null, null, null, null) {
+
+            @Override
+            public TaskEntity getTaskIdOrThrowException(Long taskId) {
+                return board.getTask(taskId);
+            }
+
+            @Override
+            public TaskStateEntity getTaskStateIdOrThrowException(Long taskStateId) {
+                return board.getTaskState(taskStateId);
+            }
+        };
+
+        ProjectOwnershipProjection ownership = new ProjectOwnershipProjection() {
+
+            @Override
+            public Long getProjectId() {
+                return InMemoryBoard.PROJECT_ID;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return null;
+            }
+        };
+
+        AuthorizationHelper authorizationHelper = new AuthorizationHelper(null, null, null, null) {
+
+            @Override
+            public ProjectOwnershipProjection checkTaskOwnerOrThrowException(Long taskId) {
+                return ownership;
+            }
+
+            @Override
+            public void checkTaskStateOwnerOrThrowException(Long projectId, Long taskStateId) {
+            }
+        };
+
+        // В бенчмарке измеряется сам перенос, а не запись версии доски в журнал изменений и рассылка событий
+        BoardVersionHelper boardVersionHelper = new BoardVersionHelper(null, null) {
+
+            @Override
+            public void recordChange(Long projectId, BoardChangeType type) {
+            }
+
+            @Override
+            public void recordChange(Long projectId, BoardChangeType type, Long taskId) {
+            }
+        };
+
+        BoardEventHub boardEventHub = new BoardEventHub(
+                new ObjectMapper(),
+                new SimpleMeterRegistry(),
+                0,
+                0,
+                1,
+                Duration.ZERO,
+                Duration.ZERO
+        ) {
+
+            @Override
+            public void publishAfterCommit(Long projectId, BoardEventDto event) {
+            }
+        };
+
+        TaskDtoMapper taskDtoMapper = new TaskDtoMapper();
+        TaskRankHelper taskRankHelper = new TaskRankHelper(null);
+
+        taskController = new TaskController(
+                board.taskRepository(),
+                board.taskStateRepository(),
+                taskDtoMapper,
+                controllerHelper,
+                authorizationHelper,
+                taskRankHelper,
+                null,
+                boardVersionHelper,
+                boardEventHub
+        );
+
+        taskStateController = new TaskStateController(
+                board.taskStateRepository(),
+                null,
+                new TaskStateDtoMapper(taskDtoMapper, taskRankHelper),
+                null,
+                controllerHelper,
+                authorizationHelper,
+                null,
+                boardVersionHelper,
+                boardEventHub
+        );
+
+        movedTaskId = board.getTaskStates().get(0).getTasks().get(0).getId();
+        movedTaskStateId = board.getTaskStates().get(0).getId();
+        lastTaskStateId = board.getTaskStates().get(taskStates - 1).getId();
+    }
+
+    @Benchmark
+    public TaskDto changeTaskPosition() {
+
+        taskAtEnd = !taskAtEnd;
+
+        return taskController.changeTaskPosition(movedTaskId, taskAtEnd ? tasksPerTaskState - 1 : 0);
+    }
+
+    @Benchmark
+    public TaskStateDto changeTaskStatePosition() {
+
+        taskStateAtEnd = !taskStateAtEnd;
+
+        return taskStateController.changeTaskStatePosition(
+                InMemoryBoard.PROJECT_ID,
+                movedTaskStateId,
+                taskStateAtEnd ? Optional.of(lastTaskStateId) : Optional.empty()
+        );
+    }
+}
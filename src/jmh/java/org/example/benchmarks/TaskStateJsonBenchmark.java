@@ -0,0 +1,66 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.TaskStateDto;
+import org.example.api.mappers.TaskDtoMapper;
+import org.example.api.mappers.TaskStateDtoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+TaskStateJsonBenchmark:
+Сериализация списка TaskStateDto в JSON тем же ObjectMapper, который Spring строит для ответов контроллеров.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskStateJsonBenchmark {
+
+    @Param({"30"})
+    private int taskStates;
+
+    @Param({"100", "1000"})
+    private int tasksPerTaskState;
+
+    private ObjectMapper objectMapper;
+
+    private List<TaskStateDto> taskStateDtos;
+
+    @Setup
+    public void setUp() {
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        TaskStateDtoMapper taskStateDtoMapper = new TaskStateDtoMapper(new TaskDtoMapper(), new TaskRankHelper(null));
+
+        taskStateDtos = new InMemoryBoard(taskStates, tasksPerTaskState)
+                .getTaskStates()
+                .stream()
+                .map(taskStateDtoMapper::createTaskStateDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTaskStates() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(taskStateDtos);
+    }
+}
@@ -1,25 +1,37 @@
 package org.example.api.controllers;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.PasswordHashingHelper;
 import org.example.api.dto.UserDto;
 import org.example.api.exceptions.BadRequestException;
 import org.example.api.mappers.UserDtoMapper;
 import org.example.store.entities.UserEntity;
 import org.example.store.repositories.UserRepository;
 import org.example.utils.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
+/*
+AuthController:
+BCrypt может ждать очереди PasswordHashingHelper до auth.password-hashing.max-wait, поэтому хэширование идёт
+вне транзакции и не держит соединение Hikari. Пользователь читается короткой транзакцией, запись
+(регистрация или пересчёт хэша) - отдельной короткой транзакцией уже после хэширования.
+Транзакции не read-only: чтение идёт в основную базу, иначе логин сразу после регистрации мог бы
+не найти пользователя на отстающей реплике.
+ */
 @RestController
-@Transactional
 @RequiredArgsConstructor
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingHelper passwordHashingHelper;
     private final JwtUtil jwtUtil;
     private final UserDtoMapper userDtoMapper;
+    private final PlatformTransactionManager transactionManager;
 
     public static final String REGISTER = "/auth/register";
     public static final String LOGIN = "/auth/login";
@@ -27,7 +39,7 @@ public class AuthController {
     @PostMapping(REGISTER)
     public UserDto register(@RequestParam String name, String password) {
 
-        if (userRepository.findByUsername(name).isPresent()) {
+        if (findUser(name).isPresent()) {
             throw new BadRequestException("Username is already taken");
         }
 
@@ -43,9 +55,16 @@ public class AuthController {
 
         user.setUsername(name);
 
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashingHelper.encode(password));
 
-        UserEntity savedUser = userRepository.save(user);
+        UserEntity savedUser;
+
+        try {
+            savedUser = new TransactionTemplate(transactionManager).execute(status -> userRepository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            // Имя заняли параллельной регистрацией, пока считался хэш
+            throw new BadRequestException("Username is already taken");
+        }
 
         return userDtoMapper.createUserDto(savedUser);
     }
@@ -53,13 +72,24 @@ public class AuthController {
     @PostMapping(LOGIN)
     public String login(@RequestParam String name, String password) {
 
-        UserEntity user = userRepository.findByUsername(name)
+        UserEntity user = findUser(name)
                 .orElseThrow(() -> new BadRequestException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingHelper.matches(password, user.getPassword())) {
             throw new BadRequestException("Invalid credentials");
         }
 
-        return jwtUtil.generateToken(user.getUsername());
+        // Стоимость BCrypt поменялась в конфигурации - пересчитываем хэш, пока известен пароль
+        if (passwordHashingHelper.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingHelper.encode(password));
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.save(user));
+        }
+
+        return jwtUtil.generateToken(user.getUsername(), user.getId());
+    }
+
+    private Optional<UserEntity> findUser(String name) {
+
+        return new TransactionTemplate(transactionManager).execute(status -> userRepository.findByUsername(name));
     }
 }
@@ -0,0 +1,182 @@
+package org.example.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.BoardChangesDto;
+import org.example.api.dto.TaskChangeDto;
+import org.example.api.exceptions.BadRequestException;
+import org.example.api.mappers.ProjectDtoMapper;
+import org.example.api.mappers.TaskDtoMapper;
+import org.example.api.mappers.TaskStateDtoMapper;
+import org.example.store.entities.BoardChangeEntity;
+import org.example.store.entities.BoardChangeType;
+import org.example.store.entities.TaskEntity;
+import org.example.store.repositories.BoardChangeRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+BoardChangeController:
+Изменения доски после версии, которую клиент уже видел (ETag доски или version прошлого ответа), по журналу
+board_change. Несколько изменений одной задачи сворачиваются в одно: задача отдаётся в текущем виде, поэтому
+объём ответа зависит от числа правок, а не от размера доски. Задачи отсортированы по position: если вставлять
+их в колонки в этом порядке, получится текущий порядок. Колонок на доске немного, поэтому при любом их
+изменении отдаётся весь упорядоченный список колонок (без задач); задачи удалённых колонок клиент удаляет сам.
+Если клиент отстал больше чем на boards.changes.max-changes версий, журнал уже сжат BoardChangeCompactionJob
+или в диапазоне есть массовое изменение (импорт), ответ содержит resyncRequired и клиент перечитывает доску.
+ */
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@RestController
+public class BoardChangeController {
+
+    private final BoardChangeRepository boardChangeRepository;
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final TaskDtoMapper taskDtoMapper;
+    private final TaskStateDtoMapper taskStateDtoMapper;
+    private final ProjectDtoMapper projectDtoMapper;
+    private final ControllerHelper controllerHelper;
+    private final AuthorizationHelper authorizationHelper;
+    private final TaskRankHelper taskRankHelper;
+
+    public static final String GET_BOARD_CHANGES = "/api/projects/{project_id}/changes";
+
+    @Value("${boards.changes.max-changes:500}")
+    private int maxChanges;
+
+    @GetMapping(GET_BOARD_CHANGES)
+    public BoardChangesDto getBoardChanges(
+            @PathVariable("project_id") Long projectId,
+            @RequestParam("since_version") long sinceVersion
+    ) {
+
+        if (sinceVersion < 0) {
+            throw new BadRequestException("Version can't be negative.");
+        }
+
+        // Версия читается до журнала и данных: они могут оказаться новее неё, но не старше, а повторно
+        // применённое изменение ничего не ломает
+        final long version = authorizationHelper.checkProjectOwnerAndGetVersion(
+                projectId,
+                "You do not have permission to access this project's info."
+        );
+
+        if (sinceVersion == version) {
+            return BoardChangesDto.builder().version(version).build();
+        }
+
+        if (sinceVersion > version || version - sinceVersion > maxChanges) {
+            return resyncRequired(version);
+        }
+
+        List<BoardChangeEntity> changes = boardChangeRepository.findAllByProjectIdAndVersionBetweenOrderByVersionAsc(
+                projectId,
+                sinceVersion + 1,
+                version
+        );
+
+        // Части версий в журнале нет: удалены компакцией или записаны до появления журнала
+        if (changes.size() != version - sinceVersion) {
+            return resyncRequired(version);
+        }
+
+        Map<Long, BoardChangeType> lastTaskChanges = new HashMap<>();
+        boolean taskStatesChanged = false;
+        boolean projectUpdated = false;
+
+        for (BoardChangeEntity change : changes) {
+            switch (change.getType()) {
+                case TASK_UPSERTED, TASK_DELETED -> lastTaskChanges.put(change.getTaskId(), change.getType());
+                case TASK_STATES_CHANGED -> taskStatesChanged = true;
+                case PROJECT_UPDATED -> projectUpdated = true;
+                case RESYNC -> {
+                    return resyncRequired(version);
+                }
+            }
+        }
+
+        List<Long> upsertedTaskIds = lastTaskChanges
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() == BoardChangeType.TASK_UPSERTED)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<TaskEntity> upsertedTasks = upsertedTaskIds.isEmpty()
+                ? List.of()
+                : taskRepository.findAllById(upsertedTaskIds);
+
+        Set<Long> foundTaskIds = upsertedTasks
+                .stream()
+                .map(TaskEntity::getId)
+                .collect(Collectors.toSet());
+
+        // Задача, изменённая в диапазоне, могла исчезнуть вместе со своей колонкой
+        List<Long> deletedTaskIds = lastTaskChanges
+                .keySet()
+                .stream()
+                .filter(taskId -> !foundTaskIds.contains(taskId))
+                .sorted()
+                .toList();
+
+        BoardChangesDto.BoardChangesDtoBuilder changesDto = BoardChangesDto.builder()
+                .version(version)
+                .tasks(createTaskChangeDtos(upsertedTasks))
+                .deletedTaskIds(deletedTaskIds);
+
+        if (projectUpdated) {
+            changesDto.project(projectDtoMapper.createProjectDto(controllerHelper.getProjectOrThrowException(projectId)));
+        }
+
+        if (taskStatesChanged) {
+            changesDto.taskStates(
+                    taskStateRepository
+                            .findAllByProjectIdOrderByOrdinalAscIdAsc(projectId)
+                            .stream()
+                            .map(taskStateDtoMapper::createTaskStateDtoWithoutTasks)
+                            .toList()
+            );
+        }
+
+        return changesDto.build();
+    }
+
+    private List<TaskChangeDto> createTaskChangeDtos(List<TaskEntity> tasks) {
+
+        // В режиме rank позиция считается запросом на задачу, но задач в ответе не больше maxChanges
+        return tasks
+                .stream()
+                .map(task -> TaskChangeDto.builder()
+                        .taskStateId(task.getTaskState().getId())
+                        .task(taskRankHelper.isRankMode()
+                                ? taskDtoMapper.createTaskDto(task, taskRankHelper.getPosition(task))
+                                : taskDtoMapper.createTaskDto(task))
+                        .build())
+                .sorted(Comparator.comparingInt(taskChange -> taskChange.getTask().getPosition()))
+                .toList();
+    }
+
+    private static BoardChangesDto resyncRequired(long version) {
+
+        return BoardChangesDto.builder()
+                .version(version)
+                .resyncRequired(true)
+                .build();
+    }
+}
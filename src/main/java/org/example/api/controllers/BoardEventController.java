@@ -0,0 +1,45 @@
+package org.example.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+/*
+BoardEventController:
+Поток Server-Sent Events с изменениями колонок и задач проекта вместо периодического опроса доски.
+Запрос сразу освобождает поток Tomcat, события рассылает BoardEventHub. После обрыва браузерный EventSource
+переподключается с заголовком Last-Event-ID и получает пропущенные события или resync.
+ */
+@RequiredArgsConstructor
+@RestController
+public class BoardEventController {
+
+    private final AuthorizationHelper authorizationHelper;
+    private final BoardEventHub boardEventHub;
+
+    public static final String GET_BOARD_EVENTS = "/api/projects/{project_id}/events";
+
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    @GetMapping(value = GET_BOARD_EVENTS, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getBoardEvents(
+            @PathVariable("project_id") Long projectId,
+            @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Optional<String> lastEventId
+    ) {
+
+        authorizationHelper.checkProjectOwnerOrThrowException(
+                projectId,
+                "You do not have permission to access this project's info."
+        );
+
+        return boardEventHub.subscribe(projectId, lastEventId);
+    }
+}
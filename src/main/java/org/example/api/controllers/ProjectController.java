@@ -1,22 +1,31 @@
 package org.example.api.controllers;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
 import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.ProjectNameIndex;
+import org.example.api.controllers.helpers.SecondLevelCacheHelper;
+import org.example.api.controllers.helpers.TaskSearchIndex;
 import org.example.api.dto.ProjectDto;
 import org.example.api.exceptions.BadRequestException;
 import org.example.api.mappers.ProjectDtoMapper;
+import org.example.store.entities.BoardChangeType;
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.UserEntity;
 import org.example.store.repositories.ProjectRepository;
+import org.example.utils.PageCursorUtil;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 @Transactional
@@ -26,35 +35,90 @@ public class ProjectController {
     private final ProjectRepository projectRepository;
     private final ProjectDtoMapper projectDtoMapper;
     private final ControllerHelper controllerHelper;
+    private final AuthorizationHelper authorizationHelper;
+    private final ProjectNameIndex projectNameIndex;
+    private final TaskSearchIndex taskSearchIndex;
+    private final SecondLevelCacheHelper secondLevelCacheHelper;
+    private final BoardVersionHelper boardVersionHelper;
+    private final BoardEventHub boardEventHub;
 
     public static final String FETCH_PROJECT = "/api/projects";
     public static final String CREATE_PROJECT = "/api/projects";
     public static final String EDIT_PROJECT = "/api/projects/{project_id}";
     public static final String DELETE_PROJECT = "/api/projects/{project_id}";
 
+    @Transactional(readOnly = true)
     @GetMapping(FETCH_PROJECT)
-    public List<ProjectDto> fetchProjects(
-            @RequestParam(value = "prefix_name", required = false) Optional<String> prefixName
+    public ResponseEntity<List<ProjectDto>> fetchProjects(
+            @RequestParam(value = "prefix_name", required = false) Optional<String> prefixName,
+            @RequestParam(value = "after_id", required = false) Optional<Long> afterId,
+            @RequestParam(value = "cursor", required = false) Optional<String> cursor,
+            @RequestParam(value = "limit", required = false) Optional<Integer> limit
     ) {
 
         final UserEntity currentUser = controllerHelper.getCurrentUser();
 
-        prefixName = prefixName.filter(name -> !name.trim().isEmpty());
+        final Optional<String> filteredPrefixName = prefixName.filter(name -> !name.trim().isEmpty());
 
-        final Stream<ProjectEntity> projectStream = prefixName
-                .map(name -> projectRepository.streamAllByNameStartsWithIgnoreCaseAndAppUser(name, currentUser))
-                .orElseGet(() -> projectRepository.streamAllByAppUser(currentUser));
+        if (afterId.isEmpty() && cursor.isEmpty() && limit.isEmpty()) {
 
-        return projectStream
-                .map(projectDtoMapper::createProjectDto)
-                .collect(Collectors.toList());
+            if (filteredPrefixName.isPresent()) {
+                return ResponseEntity.ok(projectNameIndex.findByPrefix(currentUser, filteredPrefixName.get()));
+            }
+
+            return ResponseEntity.ok(
+                    projectRepository
+                            .streamAllByAppUser(currentUser)
+                            .map(projectDtoMapper::createProjectDto)
+                            .collect(Collectors.toList())
+            );
+        }
+
+        final int pageSize = PageCursorUtil.getLimitOrThrowException(limit);
+
+        final Long lastSeenId = PageCursorUtil.decodeLong(cursor).or(() -> afterId).orElse(0L);
+
+        // Берём на одну строку больше, чтобы понять, есть ли следующая страница
+        final Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<ProjectEntity> projects = filteredPrefixName
+                .map(name -> projectRepository.findAllByAppUserAndNameStartsWithIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                        currentUser,
+                        name,
+                        lastSeenId,
+                        pageable
+                ))
+                .orElseGet(() -> projectRepository.findAllByAppUserAndIdGreaterThanOrderByIdAsc(
+                        currentUser,
+                        lastSeenId,
+                        pageable
+                ));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (projects.size() > pageSize) {
+
+            projects = projects.subList(0, pageSize);
+
+            response.header(
+                    PageCursorUtil.NEXT_CURSOR_HEADER,
+                    PageCursorUtil.encode(String.valueOf(projects.get(pageSize - 1).getId()))
+            );
+        }
+
+        return response.body(
+                projects
+                        .stream()
+                        .map(projectDtoMapper::createProjectDto)
+                        .collect(Collectors.toList())
+        );
     }
 
 
     @PostMapping(CREATE_PROJECT)
     public ProjectDto createProject(@RequestParam String name) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+        final UserEntity currentUser = controllerHelper.getCurrentUserOrThrowException();
 
         if (name.trim().isEmpty()) {
             throw new BadRequestException("Name cannot be empty");
@@ -71,6 +135,10 @@ public class ProjectController {
                         .build()
         );
 
+        boardVersionHelper.create(project.getId());
+        projectNameIndex.invalidateAfterCommit(currentUser.getId());
+        secondLevelCacheHelper.evictUserProjects(currentUser.getId());
+
         return projectDtoMapper.createProjectDto(project);
     }
 
@@ -83,11 +151,7 @@ public class ProjectController {
             throw new BadRequestException("Name cannot be empty");
         }
 
-        ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
-
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to edit this project.");
-        }
+        authorizationHelper.checkProjectOwnerOrThrowException(projectId, "You do not have permission to edit this project.");
 
         projectRepository.findByNameAndAppUser(name, currentUser)
                 .filter(anotherProject -> !Objects.equals(anotherProject.getId(), projectId))
@@ -95,24 +159,32 @@ public class ProjectController {
                     throw new BadRequestException(String.format("Project \"%s\" already exists", name));
                 });
 
+        ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+
         project.setName(name);
         project = projectRepository.saveAndFlush(project);
 
+        // Название проекта входит в ответ доски
+        boardVersionHelper.recordChange(projectId, BoardChangeType.PROJECT_UPDATED);
+        projectNameIndex.invalidateAfterCommit(currentUser.getId());
+
         return projectDtoMapper.createProjectDto(project);
     }
 
     @DeleteMapping(DELETE_PROJECT)
     public ResponseEntity<String> deleteProject(@PathVariable("project_id") Long projectId) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+        authorizationHelper.checkProjectOwnerOrThrowException(projectId, "You do not have permission to delete this project.");
 
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to delete this project.");
-        }
+        final Long currentUserId = controllerHelper.getCurrentUserId();
 
         projectRepository.deleteById(projectId);
+        boardVersionHelper.delete(projectId);
+        boardEventHub.closeAfterCommit(projectId);
+
+        projectNameIndex.invalidateAfterCommit(currentUserId);
+        taskSearchIndex.removeProjectAfterCommit(currentUserId, projectId);
+        secondLevelCacheHelper.evictUserProjects(currentUserId);
 
         return ResponseEntity.ok(String.format("Project with id - \"%s\" was successfully deleted", projectId));
     }
@@ -0,0 +1,132 @@
+package org.example.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.ProjectExportLineDto;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/*
+ProjectExportController:
+Выгружает проект в формате NDJSON: строка проекта, строки колонок по порядку и строки задач.
+Задачи читаются серверным курсором (fetch size задан в TaskRepository) и сразу пишутся в ответ,
+после записи сущность отсоединяется от persistence context, поэтому память не растёт с размером проекта.
+ */
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@RestController
+public class ProjectExportController {
+
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final ControllerHelper controllerHelper;
+    private final AuthorizationHelper authorizationHelper;
+    private final TaskRankHelper taskRankHelper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public static final String EXPORT_PROJECT = "/api/projects/{project_id}/export";
+
+    @GetMapping(value = EXPORT_PROJECT, produces = NDJSON_CONTENT_TYPE)
+    public void exportProject(
+            @PathVariable("project_id") Long projectId,
+            HttpServletResponse response
+    ) throws IOException {
+
+        authorizationHelper.checkProjectOwnerOrThrowException(
+                projectId,
+                "You do not have permission to access this project's info."
+        );
+
+        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+
+        response.setContentType(NDJSON_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        OutputStream outputStream = response.getOutputStream();
+
+        writeLine(outputStream, ProjectExportLineDto.builder()
+                .type(ProjectExportLineDto.PROJECT)
+                .id(project.getId())
+                .name(project.getName())
+                .createdAt(project.getCreatedAt())
+                .updatedAt(project.getUpdatedAt())
+                .build());
+
+        for (TaskStateEntity taskState : taskStateRepository.findAllByProjectIdOrderByOrdinalAscIdAsc(projectId)) {
+
+            writeLine(outputStream, ProjectExportLineDto.builder()
+                    .type(ProjectExportLineDto.TASK_STATE)
+                    .id(taskState.getId())
+                    .name(taskState.getName())
+                    .position(taskState.getOrdinal())
+                    .leftTaskStateId(taskState.getLeftTaskState().map(TaskStateEntity::getId).orElse(null))
+                    .rightTaskStateId(taskState.getRightTaskState().map(TaskStateEntity::getId).orElse(null))
+                    .build());
+        }
+
+        boolean rankMode = taskRankHelper.isRankMode();
+
+        try (Stream<TaskEntity> tasks = rankMode
+                ? taskRepository.streamAllByProjectIdOrderByRankKey(projectId)
+                : taskRepository.streamAllByProjectIdOrderByPosition(projectId)) {
+
+            Long currentTaskStateId = null;
+            int rankPosition = 0;
+
+            Iterator<TaskEntity> iterator = tasks.iterator();
+
+            while (iterator.hasNext()) {
+
+                TaskEntity task = iterator.next();
+
+                Long taskStateId = task.getTaskState().getId();
+
+                if (!Objects.equals(taskStateId, currentTaskStateId)) {
+                    currentTaskStateId = taskStateId;
+                    rankPosition = 0;
+                }
+
+                writeLine(outputStream, ProjectExportLineDto.builder()
+                        .type(ProjectExportLineDto.TASK)
+                        .id(task.getId())
+                        .name(task.getName())
+                        .description(task.getDescription())
+                        .position(rankMode ? rankPosition++ : task.getPosition())
+                        .taskStateId(taskStateId)
+                        .build());
+
+                entityManager.detach(task);
+            }
+        }
+
+        outputStream.flush();
+    }
+
+    private void writeLine(OutputStream outputStream, ProjectExportLineDto line) throws IOException {
+
+        outputStream.write(objectMapper.writeValueAsBytes(line));
+        outputStream.write('\n');
+    }
+}
@@ -1,21 +1,38 @@
 package org.example.api.controllers;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
 import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.BoardEventType;
 import org.example.api.dto.TaskDto;
+import org.example.api.dto.TaskSearchResultDto;
 import org.example.api.exceptions.BadRequestException;
 import org.example.api.mappers.TaskDtoMapper;
+import org.example.store.entities.BoardChangeType;
 import org.example.store.entities.TaskEntity;
-import org.example.store.entities.TaskStateEntity;
-import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectOwnershipProjection;
 import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.utils.PageCursorUtil;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Comparator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @RequiredArgsConstructor
 @Transactional
@@ -23,33 +40,63 @@ import java.util.Objects;
 public class TaskController {
 
     private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
     private final TaskDtoMapper taskDtoMapper;
     private final ControllerHelper controllerHelper;
+    private final AuthorizationHelper authorizationHelper;
+    private final TaskRankHelper taskRankHelper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final BoardVersionHelper boardVersionHelper;
+    private final BoardEventHub boardEventHub;
 
     public static final String GET_TASKS = "/api/task_states/{task_state_id}/tasks";
     public static final String CREATE_TASK = "/api/task_states/{task_state_id}/tasks";
     public static final String UPDATE_TASK = "/api/tasks/{task_id}";
     public static final String CHANGE_TASK_POSITION = "/api/tasks/{task_id}/position";
     private static final String DELETE_TASK = "/api/tasks/{task_id}";
+    public static final String SEARCH_TASKS = "/api/tasks/search";
 
-    @GetMapping(GET_TASKS)
-    public List<TaskDto> getTasks(@PathVariable("task_state_id") Long taskStateId) {
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final String POSITION_CURSOR_PREFIX = "p:";
+    private static final String RANK_CURSOR_PREFIX = "r:";
+    private static final String UNRANKED_CURSOR_PREFIX = "n:";
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+    @Transactional(readOnly = true)
+    @GetMapping(GET_TASKS)
+    public ResponseEntity<List<TaskDto>> getTasks(
+            @PathVariable("task_state_id") Long taskStateId,
+            @RequestParam(value = "after_position", required = false) Optional<Integer> afterPosition,
+            @RequestParam(value = "cursor", required = false) Optional<String> cursor,
+            @RequestParam(value = "limit", required = false) Optional<Integer> limit) {
 
-        TaskStateEntity taskState = controllerHelper.getTaskStateIdOrThrowException(taskStateId);
+        authorizationHelper.checkTaskStateOwnerOrThrowException(taskStateId);
 
-        if (!Objects.equals(taskState.getProject().getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
+        if (afterPosition.isPresent() || cursor.isPresent() || limit.isPresent()) {
+            return getTasksPage(taskStateId, afterPosition, cursor, PageCursorUtil.getLimitOrThrowException(limit));
         }
 
+        List<TaskEntity> tasks = taskRepository.findAllByTaskStateIdOrderByPositionAsc(taskStateId);
 
-        return taskState
-                .getTasks()
-                .stream()
-                .sorted(Comparator.comparingInt(TaskEntity::getPosition))
-                .map(taskDtoMapper::createTaskDto)
-                .toList();
+        if (taskRankHelper.isRankMode()) {
+
+            List<TaskEntity> rankedTasks = taskRankHelper.sortByRankKey(tasks);
+
+            return ResponseEntity.ok(
+                    IntStream
+                            .range(0, rankedTasks.size())
+                            .mapToObj(position -> taskDtoMapper.createTaskDto(rankedTasks.get(position), position))
+                            .toList()
+            );
+        }
+
+        return ResponseEntity.ok(
+                tasks
+                        .stream()
+                        .map(taskDtoMapper::createTaskDto)
+                        .toList()
+        );
     }
 
     @PostMapping(CREATE_TASK)
@@ -66,25 +113,28 @@ public class TaskController {
             throw new BadRequestException("Task's description can't be empty.");
         }
 
-        TaskStateEntity taskState = controllerHelper.getTaskStateIdOrThrowException(taskStateId);
+        ProjectOwnershipProjection ownership = authorizationHelper.checkTaskStateOwnerOrThrowException(taskStateId);
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        if (!Objects.equals(taskState.getProject().getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
-        }
-
-        int newPosition = taskState.getTasks().size();
+        int newPosition = (int) taskRepository.countByTaskStateId(taskStateId);
 
         TaskEntity newTask = TaskEntity.builder()
                 .name(taskName)
                 .description(description)
                 .position(newPosition)
-                .taskState(taskState)
+                .rankKey(taskRankHelper.isRankMode() ? taskRankHelper.getRankKeyAfterLast(taskStateId) : null)
+                .taskState(taskStateRepository.getReferenceById(taskStateId))
                 .build();
 
         TaskEntity savedTask = taskRepository.saveAndFlush(newTask);
-        return taskDtoMapper.createTaskDto(savedTask);
+
+        boardVersionHelper.recordChange(ownership.getProjectId(), BoardChangeType.TASK_UPSERTED, savedTask.getId());
+        taskSearchIndex.indexAfterCommit(ownership.getOwnerId(), ownership.getProjectId(), savedTask);
+
+        TaskDto taskDto = taskDtoMapper.createTaskDto(savedTask);
+
+        publishTaskEvent(BoardEventType.TASK_CREATED, ownership.getProjectId(), taskStateId, taskDto);
+
+        return taskDto;
     }
 
     @PatchMapping(UPDATE_TASK)
@@ -93,13 +143,9 @@ public class TaskController {
             @RequestParam(name = "task_name", required = false) String taskName,
             @RequestParam(name = "description", required = false) String description) {
 
-        TaskEntity taskToUpdate = controllerHelper.getTaskIdOrThrowException(taskId);
-
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+        ProjectOwnershipProjection ownership = authorizationHelper.checkTaskOwnerOrThrowException(taskId);
 
-        if (!Objects.equals(taskToUpdate.getTaskState().getProject().getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
-        }
+        TaskEntity taskToUpdate = controllerHelper.getTaskIdOrThrowException(taskId);
 
         if (taskName != null && !taskName.isBlank()) {
             taskToUpdate.setName(taskName);
@@ -114,7 +160,22 @@ public class TaskController {
         }
 
         TaskEntity updatedTask = taskRepository.saveAndFlush(taskToUpdate);
-        return taskDtoMapper.createTaskDto(updatedTask);
+
+        boardVersionHelper.recordChange(ownership.getProjectId(), BoardChangeType.TASK_UPSERTED, taskId);
+        taskSearchIndex.indexAfterCommit(ownership.getOwnerId(), ownership.getProjectId(), updatedTask);
+
+        TaskDto taskDto = taskRankHelper.isRankMode()
+                ? taskDtoMapper.createTaskDto(updatedTask, taskRankHelper.getPosition(updatedTask))
+                : taskDtoMapper.createTaskDto(updatedTask);
+
+        publishTaskEvent(
+                BoardEventType.TASK_UPDATED,
+                ownership.getProjectId(),
+                updatedTask.getTaskState().getId(),
+                taskDto
+        );
+
+        return taskDto;
     }
 
     @PatchMapping(CHANGE_TASK_POSITION)
@@ -122,56 +183,291 @@ public class TaskController {
             @PathVariable(name = "task_id") Long taskId,
             @RequestParam(name = "new_position") int newPosition) {
 
+        ProjectOwnershipProjection ownership = authorizationHelper.checkTaskOwnerOrThrowException(taskId);
+
         TaskEntity taskToChange = controllerHelper.getTaskIdOrThrowException(taskId);
-        TaskStateEntity taskState = taskToChange.getTaskState();
+        Long taskStateId = taskToChange.getTaskState().getId();
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+        long tasksCount = taskRepository.countByTaskStateId(taskStateId);
 
-        if (!Objects.equals(taskState.getProject().getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
+        if (newPosition < 0 || newPosition >= tasksCount) {
+            throw new BadRequestException("Invalid position value.");
         }
 
-        List<TaskEntity> tasks = taskState.getTasks();
+        if (taskRankHelper.isRankMode()) {
 
-        if (newPosition < 0 || newPosition >= tasks.size()) {
-            throw new BadRequestException("Invalid position value.");
+            taskToChange.setRankKey(
+                    taskRankHelper.getRankKeyForPosition(taskStateId, taskToChange.getId(), newPosition)
+            );
+            taskToChange = taskRepository.saveAndFlush(taskToChange);
+
+            boardVersionHelper.recordChange(ownership.getProjectId(), BoardChangeType.TASK_UPSERTED, taskId);
+
+            TaskDto taskDto = taskDtoMapper.createTaskDto(taskToChange, newPosition);
+
+            publishTaskEvent(BoardEventType.TASK_MOVED, ownership.getProjectId(), taskStateId, taskDto);
+
+            return taskDto;
         }
 
-        tasks.remove(taskToChange);
-        tasks.add(newPosition, taskToChange);
+        int oldPosition = taskToChange.getPosition();
 
-        for (int i = 0; i < tasks.size(); i++) {
-            TaskEntity task = tasks.get(i);
-            task.setPosition(i);
-            taskRepository.saveAndFlush(task);
+        if (newPosition == oldPosition) {
+            return taskDtoMapper.createTaskDto(taskToChange);
         }
 
-        return taskDtoMapper.createTaskDto(taskToChange);
+        if (newPosition > oldPosition) {
+            taskRepository.shiftPositionsLeft(taskStateId, oldPosition, newPosition);
+        } else {
+            taskRepository.shiftPositionsRight(taskStateId, newPosition, oldPosition);
+        }
+
+        taskToChange.setPosition(newPosition);
+        taskToChange = taskRepository.saveAndFlush(taskToChange);
+
+        boardVersionHelper.recordChange(ownership.getProjectId(), BoardChangeType.TASK_UPSERTED, taskId);
+
+        TaskDto taskDto = taskDtoMapper.createTaskDto(taskToChange);
+
+        publishTaskEvent(BoardEventType.TASK_MOVED, ownership.getProjectId(), taskStateId, taskDto);
+
+        return taskDto;
     }
 
     @DeleteMapping(DELETE_TASK)
     public ResponseEntity<String> deleteTask(@PathVariable(name = "task_id") Long taskId) {
 
+        ProjectOwnershipProjection ownership = authorizationHelper.checkTaskOwnerOrThrowException(taskId);
+
         TaskEntity taskToDelete = controllerHelper.getTaskIdOrThrowException(taskId);
-        TaskStateEntity taskState = taskToDelete.getTaskState();
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+        taskRepository.delete(taskToDelete);
 
-        if (!Objects.equals(taskState.getProject().getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
+        if (!taskRankHelper.isRankMode()) {
+            taskRepository.shiftPositionsLeft(
+                    taskToDelete.getTaskState().getId(),
+                    taskToDelete.getPosition(),
+                    Integer.MAX_VALUE
+            );
         }
 
-        List<TaskEntity> tasks = taskState.getTasks();
+        boardVersionHelper.recordChange(ownership.getProjectId(), BoardChangeType.TASK_DELETED, taskId);
+        taskSearchIndex.removeAfterCommit(ownership.getOwnerId(), taskId);
 
-        tasks.remove(taskToDelete);
-        taskRepository.delete(taskToDelete);
+        boardEventHub.publishAfterCommit(
+                ownership.getProjectId(),
+                BoardEventDto.builder()
+                        .type(BoardEventType.TASK_DELETED)
+                        .taskStateId(taskToDelete.getTaskState().getId())
+                        .taskId(taskId)
+                        .build()
+        );
 
-        for (int i = 0; i < tasks.size(); i++) {
-            TaskEntity task = tasks.get(i);
-            task.setPosition(i);
-            taskRepository.saveAndFlush(task);
+        return ResponseEntity.ok(String.format("Task with id - \"%s\" was successfully deleted", taskId));
+    }
+
+    @Transactional(readOnly = true)
+    @GetMapping(SEARCH_TASKS)
+    public List<TaskSearchResultDto> searchTasks(
+            @RequestParam(name = "query") String query,
+            @RequestParam(name = "project_id", required = false) Optional<Long> projectId,
+            @RequestParam(name = "limit", required = false) Optional<Integer> limit) {
+
+        if (query.isBlank()) {
+            throw new BadRequestException("Search query can't be empty.");
         }
 
-        return ResponseEntity.ok(String.format("Task with id - \"%s\" was successfully deleted", taskId));
+        int resultsLimit = limit.orElse(DEFAULT_SEARCH_LIMIT);
+
+        if (resultsLimit < 1 || resultsLimit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %d.", MAX_SEARCH_LIMIT));
+        }
+
+        final Long currentUserId = controllerHelper.getCurrentUserId();
+
+        List<Long> taskIds = taskSearchIndex.search(currentUserId, query, projectId.orElse(null), resultsLimit);
+
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Индекс отдаёт только id в порядке релевантности, сами задачи и права доступа берём из базы
+        Map<Long, TaskEntity> tasks = taskRepository
+                .findAllWithProjectByIdIn(taskIds)
+                .stream()
+                .filter(task -> Objects.equals(task.getTaskState().getProject().getAppUser().getId(), currentUserId))
+                .collect(Collectors.toMap(TaskEntity::getId, Function.identity()));
+
+        return taskIds
+                .stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(taskDtoMapper::createTaskSearchResultDto)
+                .toList();
+    }
+
+    private ResponseEntity<List<TaskDto>> getTasksPage(
+            Long taskStateId,
+            Optional<Integer> afterPosition,
+            Optional<String> cursor,
+            int pageSize) {
+
+        // Берём на одну строку больше, чтобы понять, есть ли следующая страница
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        Optional<String> cursorKey = cursor.map(PageCursorUtil::decode);
+
+        List<TaskEntity> tasks;
+        List<TaskDto> taskDtos;
+        boolean hasNextPage;
+
+        if (taskRankHelper.isRankMode()) {
+
+            if (afterPosition.isPresent() && cursorKey.isEmpty()) {
+                throw new BadRequestException("Use cursor to paginate tasks ordered by rank.");
+            }
+
+            // Сначала задачи с rank key, затем задачи без ключа (ещё не перебалансированные), как в sortByRankKey
+            Optional<UnrankedCursor> unrankedCursor = cursorKey
+                    .filter(key -> key.startsWith(UNRANKED_CURSOR_PREFIX))
+                    .map(TaskController::parseUnrankedCursor);
+
+            tasks = new ArrayList<>();
+
+            if (unrankedCursor.isEmpty()) {
+
+                String afterRankKey = cursorKey
+                        .map(key -> stripCursorPrefix(key, RANK_CURSOR_PREFIX))
+                        .orElse("");
+
+                tasks.addAll(taskRepository.findAllByTaskStateIdAndRankKeyGreaterThanOrderByRankKeyAsc(
+                        taskStateId,
+                        afterRankKey,
+                        pageable
+                ));
+            }
+
+            if (tasks.size() <= pageSize) {
+
+                UnrankedCursor afterUnranked = unrankedCursor.orElse(UnrankedCursor.FIRST);
+
+                tasks.addAll(taskRepository.findAllUnrankedByTaskStateIdAfter(
+                        taskStateId,
+                        afterUnranked.position(),
+                        afterUnranked.id(),
+                        PageRequest.of(0, pageSize + 1 - tasks.size())
+                ));
+            }
+
+            hasNextPage = tasks.size() > pageSize;
+
+            if (hasNextPage) {
+                tasks = tasks.subList(0, pageSize);
+            }
+
+            int firstPosition = tasks.isEmpty()
+                    ? 0
+                    : taskRankHelper.getPosition(tasks.get(0));
+
+            List<TaskEntity> pageTasks = tasks;
+
+            taskDtos = IntStream
+                    .range(0, pageTasks.size())
+                    .mapToObj(index -> taskDtoMapper.createTaskDto(pageTasks.get(index), firstPosition + index))
+                    .toList();
+        } else {
+
+            int lastSeenPosition = cursorKey
+                    .map(key -> {
+                        try {
+                            return Integer.parseInt(stripCursorPrefix(key, POSITION_CURSOR_PREFIX));
+                        } catch (NumberFormatException e) {
+                            throw new BadRequestException("Invalid cursor.");
+                        }
+                    })
+                    .or(() -> afterPosition)
+                    .orElse(-1);
+
+            tasks = taskRepository.findAllByTaskStateIdAndPositionGreaterThanOrderByPositionAsc(
+                    taskStateId,
+                    lastSeenPosition,
+                    pageable
+            );
+
+            hasNextPage = tasks.size() > pageSize;
+
+            if (hasNextPage) {
+                tasks = tasks.subList(0, pageSize);
+            }
+
+            taskDtos = tasks
+                    .stream()
+                    .map(taskDtoMapper::createTaskDto)
+                    .toList();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (hasNextPage) {
+
+            TaskEntity lastTask = tasks.get(pageSize - 1);
+
+            String nextCursorKey;
+
+            if (!taskRankHelper.isRankMode()) {
+                nextCursorKey = POSITION_CURSOR_PREFIX + lastTask.getPosition();
+            } else if (lastTask.getRankKey() == null) {
+                nextCursorKey = UNRANKED_CURSOR_PREFIX + lastTask.getPosition() + ":" + lastTask.getId();
+            } else {
+                nextCursorKey = RANK_CURSOR_PREFIX + lastTask.getRankKey();
+            }
+
+            response.header(PageCursorUtil.NEXT_CURSOR_HEADER, PageCursorUtil.encode(nextCursorKey));
+        }
+
+        return response.body(taskDtos);
+    }
+
+    private void publishTaskEvent(BoardEventType type, Long projectId, Long taskStateId, TaskDto taskDto) {
+
+        boardEventHub.publishAfterCommit(
+                projectId,
+                BoardEventDto.builder()
+                        .type(type)
+                        .taskStateId(taskStateId)
+                        .taskId(taskDto.getId())
+                        .task(taskDto)
+                        .build()
+        );
+    }
+
+    private static UnrankedCursor parseUnrankedCursor(String cursorKey) {
+
+        String[] parts = cursorKey.substring(UNRANKED_CURSOR_PREFIX.length()).split(":");
+
+        try {
+            if (parts.length == 2) {
+                return new UnrankedCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+            }
+        } catch (NumberFormatException e) {
+            // Ниже общая ошибка для любого повреждённого курсора
+        }
+
+        throw new BadRequestException("Invalid cursor.");
+    }
+
+    private static String stripCursorPrefix(String cursorKey, String prefix) {
+
+        if (!cursorKey.startsWith(prefix)) {
+            throw new BadRequestException("Cursor doesn't match the current task ordering.");
+        }
+
+        return cursorKey.substring(prefix.length());
+    }
+
+    // Позиция последней задачи без rank key на предыдущей странице
+    private record UnrankedCursor(int position, long id) {
+
+        private static final UnrankedCursor FIRST = new UnrankedCursor(Integer.MIN_VALUE, Long.MIN_VALUE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,473 @@
+package org.example.api.controllers;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
+import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.BoardEventType;
+import org.example.api.dto.TaskImportErrorDto;
+import org.example.api.dto.TaskImportResultDto;
+import org.example.api.dto.TaskImportRowDto;
+import org.example.api.exceptions.BadRequestException;
+import org.example.store.entities.BoardChangeType;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.utils.RankKeyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+TaskImportController:
+Массовый импорт задач (JSON-массив или CSV) в одну или несколько колонок пользователя.
+Тело запроса читается потоково, строки валидируются по одной и вставляются пачками по
+tasks.import.chunk-size в отдельных транзакциях с JDBC batching. Если пачка не вставилась,
+её строки повторяются по одной, чтобы ошибка попала только в отчёт о конкретной строке.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class TaskImportController {
+
+    private static final String CSV_CONTENT_TYPE = "text/csv";
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final List<String> CSV_HEADER = List.of("task_state_id", "task_name", "description");
+
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final ControllerHelper controllerHelper;
+    private final TaskRankHelper taskRankHelper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final BoardVersionHelper boardVersionHelper;
+    private final BoardEventHub boardEventHub;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tasks.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public static final String IMPORT_TASKS = "/api/tasks/import";
+
+    @PostMapping(value = IMPORT_TASKS, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TaskImportResultDto importTasksFromJson(HttpServletRequest request) throws IOException {
+
+        ImportSession session = new ImportSession(controllerHelper.getCurrentUserOrThrowException());
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Request body must be a JSON array of tasks.");
+            }
+
+            long rowNumber = 0;
+
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+
+                    rowNumber++;
+
+                    JsonNode node = parser.readValueAsTree();
+
+                    try {
+                        session.addRow(rowNumber, objectMapper.treeToValue(node, TaskImportRowDto.class));
+                    } catch (JsonProcessingException e) {
+                        session.addError(rowNumber, "Invalid task: " + e.getOriginalMessage());
+                    }
+                }
+            } catch (IOException e) {
+                session.addError(rowNumber + 1, "Malformed JSON, import stopped: " + e.getMessage());
+            }
+        }
+
+        return session.finish();
+    }
+
+    @PostMapping(value = IMPORT_TASKS, consumes = CSV_CONTENT_TYPE)
+    public TaskImportResultDto importTasksFromCsv(HttpServletRequest request) throws IOException {
+
+        ImportSession session = new ImportSession(controllerHelper.getCurrentUserOrThrowException());
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+
+            // Первая строка - заголовок task_state_id,task_name,description. С другим заголовком колонки
+            // могут быть переставлены, поэтому файл не импортируется, а ошибка относится к строке 0
+            String header = reader.readLine();
+
+            if (header == null || !CSV_HEADER.equals(parseCsvLine(stripBom(header)).stream().map(String::trim).toList())) {
+                session.addError(0, "Expected header " + String.join(",", CSV_HEADER) + ".");
+                return session.finish();
+            }
+
+            String line;
+            long rowNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+
+                rowNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                List<String> columns = parseCsvLine(line);
+
+                if (columns.size() != 3) {
+                    session.addError(rowNumber, "Expected 3 columns: " + String.join(",", CSV_HEADER) + ".");
+                    continue;
+                }
+
+                try {
+                    session.addRow(rowNumber, TaskImportRowDto.builder()
+                            .taskStateId(Long.parseLong(columns.get(0).trim()))
+                            .taskName(columns.get(1))
+                            .description(columns.get(2))
+                            .build());
+                } catch (NumberFormatException e) {
+                    session.addError(rowNumber, String.format("Invalid task state id \"%s\".", columns.get(0)));
+                }
+            }
+        }
+
+        return session.finish();
+    }
+
+    private static String stripBom(String line) {
+
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+
+        List<String> columns = new ArrayList<>();
+        StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+
+            char symbol = line.charAt(i);
+
+            if (quoted) {
+                if (symbol == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    column.append('"');
+                    i++;
+                } else if (symbol == '"') {
+                    quoted = false;
+                } else {
+                    column.append(symbol);
+                }
+            } else if (symbol == '"') {
+                quoted = true;
+            } else if (symbol == ',') {
+                columns.add(column.toString());
+                column.setLength(0);
+            } else {
+                column.append(symbol);
+            }
+        }
+
+        columns.add(column.toString());
+
+        return columns;
+    }
+
+    private class ImportSession {
+
+        private final UserEntity currentUser;
+
+        private final Map<Long, ImportTarget> targets = new HashMap<>();
+
+        private final List<PendingTask> chunk = new ArrayList<>();
+
+        private final List<TaskImportErrorDto> errors = new ArrayList<>();
+
+        private long importedCount;
+
+        private ImportSession(UserEntity currentUser) {
+            this.currentUser = currentUser;
+        }
+
+        private void addRow(long rowNumber, TaskImportRowDto row) {
+
+            if (row == null || row.getTaskStateId() == null) {
+                addError(rowNumber, "Task state id is required.");
+                return;
+            }
+
+            if (row.getTaskName() == null || row.getTaskName().isBlank()) {
+                addError(rowNumber, "Task's name can't be empty.");
+                return;
+            }
+
+            if (row.getDescription() == null || row.getDescription().isBlank()) {
+                addError(rowNumber, "Task's description can't be empty.");
+                return;
+            }
+
+            if (row.getTaskName().length() > MAX_COLUMN_LENGTH || row.getDescription().length() > MAX_COLUMN_LENGTH) {
+                addError(rowNumber, String.format("Task's name and description can't be longer than %d.", MAX_COLUMN_LENGTH));
+                return;
+            }
+
+            ImportTarget target = targets.computeIfAbsent(row.getTaskStateId(), this::loadTarget);
+
+            if (target.error != null) {
+                addError(rowNumber, target.error);
+                return;
+            }
+
+            chunk.add(new PendingTask(rowNumber, target, row.getTaskName(), row.getDescription()));
+
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        private void addError(long rowNumber, String error) {
+
+            errors.add(new TaskImportErrorDto(rowNumber, error));
+        }
+
+        private TaskImportResultDto finish() {
+
+            flushChunk();
+
+            return TaskImportResultDto.builder()
+                    .importedCount(importedCount)
+                    .failedCount(errors.size())
+                    .errors(errors)
+                    .build();
+        }
+
+        private ImportTarget loadTarget(Long taskStateId) {
+
+            return taskStateRepository
+                    .findOwnershipById(taskStateId)
+                    .map(ownership -> {
+
+                        if (!Objects.equals(ownership.getOwnerId(), currentUser.getId())) {
+                            return ImportTarget.failed("You do not have permission to access this project.");
+                        }
+
+                        return new ImportTarget(
+                                taskStateId,
+                                ownership.getProjectId(),
+                                (int) taskRepository.countByTaskStateId(taskStateId),
+                                taskRankHelper.isRankMode() ? taskRankHelper.getLastRankKey(taskStateId) : null
+                        );
+                    })
+                    .orElseGet(() -> ImportTarget.failed(String.format("Task state \"%s\" doesn't exist.", taskStateId)));
+        }
+
+        private void flushChunk() {
+
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<PendingTask> pendingTasks = List.copyOf(chunk);
+            chunk.clear();
+
+            Map<ImportTarget, ImportTarget> snapshots = new HashMap<>();
+            pendingTasks.forEach(task -> snapshots.computeIfAbsent(task.target, ImportTarget::copy));
+
+            Set<Long> changedProjectIds = new LinkedHashSet<>();
+
+            try {
+                persist(pendingTasks, true);
+                importedCount += pendingTasks.size();
+                pendingTasks.forEach(pendingTask -> changedProjectIds.add(pendingTask.target.projectId));
+            } catch (RuntimeException e) {
+
+                log.warn("Task import chunk of {} rows failed, retrying row by row", pendingTasks.size(), e);
+
+                snapshots.forEach(ImportTarget::restore);
+
+                for (PendingTask pendingTask : pendingTasks) {
+
+                    ImportTarget snapshot = pendingTask.target.copy();
+
+                    try {
+                        persist(List.of(pendingTask), false);
+                        importedCount++;
+                        changedProjectIds.add(pendingTask.target.projectId);
+                    } catch (RuntimeException rowException) {
+                        pendingTask.target.restore(snapshot);
+                        addError(pendingTask.rowNumber, "Task can't be saved: " + rowException.getMessage());
+                    }
+                }
+
+                // Одна версия доски на проект за всю пачку, а не на каждую повторённую строку
+                if (!changedProjectIds.isEmpty()) {
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                            recordResync(changedProjectIds));
+                }
+            }
+
+            // Пачка может содержать тысячи задач: вместо события на каждую подписчики перечитывают доску
+            changedProjectIds.forEach(projectId -> boardEventHub.publish(
+                    projectId,
+                    BoardEventDto.builder().type(BoardEventType.RESYNC).build()
+            ));
+        }
+
+        private void persist(List<PendingTask> pendingTasks, boolean recordChanges) {
+
+            List<TaskEntity> persistedTasks = new ArrayList<>();
+
+            Map<ImportTarget, Iterator<String>> rankKeys = createRankKeys(pendingTasks);
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+                for (PendingTask pendingTask : pendingTasks) {
+
+                    ImportTarget target = pendingTask.target;
+
+                    String rankKey = rankKeys.isEmpty() ? null : rankKeys.get(target).next();
+
+                    TaskEntity task = TaskEntity.builder()
+                            .name(pendingTask.name)
+                            .description(pendingTask.description)
+                            .position(target.nextPosition)
+                            .rankKey(rankKey)
+                            .taskState(entityManager.getReference(TaskStateEntity.class, target.taskStateId))
+                            .build();
+
+                    entityManager.persist(task);
+                    persistedTasks.add(task);
+
+                    target.nextPosition++;
+
+                    if (rankKey != null) {
+                        target.lastRankKey = rankKey;
+                    }
+                }
+
+                if (recordChanges) {
+                    recordResync(pendingTasks
+                            .stream()
+                            .map(pendingTask -> pendingTask.target.projectId)
+                            .collect(Collectors.toCollection(LinkedHashSet::new)));
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            // Транзакция пачки уже закоммичена, задачи можно добавлять в поисковый индекс
+            for (int i = 0; i < persistedTasks.size(); i++) {
+
+                TaskEntity task = persistedTasks.get(i);
+
+                taskSearchIndex.index(
+                        currentUser.getId(),
+                        pendingTasks.get(i).target.projectId,
+                        task.getId(),
+                        task.getName(),
+                        task.getDescription()
+                );
+            }
+        }
+
+        // Ключи пачки раскладываются равномерно после последнего ключа колонки: цепочка between(key, null)
+        // удлиняла бы ключ с каждой строкой
+        private Map<ImportTarget, Iterator<String>> createRankKeys(List<PendingTask> pendingTasks) {
+
+            if (!taskRankHelper.isRankMode()) {
+                return Map.of();
+            }
+
+            Map<ImportTarget, Long> counts = pendingTasks
+                    .stream()
+                    .collect(Collectors.groupingBy(PendingTask::target, Collectors.counting()));
+
+            Map<ImportTarget, Iterator<String>> rankKeys = new HashMap<>();
+
+            counts.forEach((target, count) ->
+                    rankKeys.put(target, RankKeyUtil.spread(target.lastRankKey, count.intValue()).iterator()));
+
+            return rankKeys;
+        }
+
+        private void recordResync(Set<Long> projectIds) {
+
+            projectIds.forEach(projectId -> boardVersionHelper.recordChange(projectId, BoardChangeType.RESYNC));
+        }
+    }
+
+    private static class ImportTarget {
+
+        private final Long taskStateId;
+
+        private final Long projectId;
+
+        private final String error;
+
+        private int nextPosition;
+
+        private String lastRankKey;
+
+        private ImportTarget(Long taskStateId, Long projectId, int nextPosition, String lastRankKey) {
+            this.taskStateId = taskStateId;
+            this.projectId = projectId;
+            this.error = null;
+            this.nextPosition = nextPosition;
+            this.lastRankKey = lastRankKey;
+        }
+
+        private ImportTarget(String error) {
+            this.taskStateId = null;
+            this.projectId = null;
+            this.error = error;
+        }
+
+        private static ImportTarget failed(String error) {
+            return new ImportTarget(error);
+        }
+
+        private ImportTarget copy() {
+            return new ImportTarget(taskStateId, projectId, nextPosition, lastRankKey);
+        }
+
+        private void restore(ImportTarget snapshot) {
+            nextPosition = snapshot.nextPosition;
+            lastRankKey = snapshot.lastRankKey;
+        }
+    }
+
+    private record PendingTask(long rowNumber, ImportTarget target, String name, String description) {
+    }
+}
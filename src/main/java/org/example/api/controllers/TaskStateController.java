@@ -1,20 +1,29 @@
 package org.example.api.controllers;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
 import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.SecondLevelCacheHelper;
+import org.example.api.dto.BoardDto;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.BoardEventType;
 import org.example.api.dto.TaskStateDto;
 import org.example.api.exceptions.BadRequestException;
+import org.example.api.mappers.ProjectDtoMapper;
 import org.example.api.mappers.TaskStateDtoMapper;
+import org.example.store.entities.BoardChangeType;
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.TaskStateEntity;
-import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
 import org.example.store.repositories.TaskStateRepository;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 @RequiredArgsConstructor
@@ -23,31 +32,80 @@ import java.util.Optional;
 public class TaskStateController {
 
     private final TaskStateRepository taskStateRepository;
+    private final ProjectRepository projectRepository;
     private final TaskStateDtoMapper taskStateDtoMapper;
+    private final ProjectDtoMapper projectDtoMapper;
     private final ControllerHelper controllerHelper;
+    private final AuthorizationHelper authorizationHelper;
+    private final SecondLevelCacheHelper secondLevelCacheHelper;
+    private final BoardVersionHelper boardVersionHelper;
+    private final BoardEventHub boardEventHub;
 
+    public static final String GET_BOARD = "/api/projects/{project_id}/board";
     public static final String GET_TASK_STATES = "/api/projects/{project_id}/task_states";
     public static final String CREATE_TASK_STATE = "/api/projects/{project_id}/task_states";
     public static final String UPDATE_TASK_STATE = "/api/projects/{project_id}/task_states/{task_state_id}";
     public static final String CHANGE_TASK_STATE_POSITION = "/api/projects/{project_id}/task_states/{task_state_id}/position";
     private static final String DELETE_TASK_STATE = "/api/projects/{project_id}/task-states/{task_state_id}";
 
+    @Transactional(readOnly = true)
     @GetMapping(GET_TASK_STATES)
-    public List<TaskStateDto> getTaskStates(@PathVariable("project_id") Long projectId) {
+    public ResponseEntity<List<TaskStateDto>> getTaskStates(
+            @PathVariable("project_id") Long projectId,
+            WebRequest request
+    ) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
+        final String eTag = BoardVersionHelper.toETag(authorizationHelper.checkProjectOwnerAndGetVersion(
+                projectId,
+                "You do not have permission to access this project's info."
+        ));
 
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+        // Версия читается до колонок, поэтому под этим ETag не может оказаться доска старше него
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(
+                        taskStateRepository
+                                .findAllWithTasksByProjectIdOrderByOrdinalAsc(projectId)
+                                .stream()
+                                .map(taskStateDtoMapper::createTaskStateDto)
+                                .toList()
+                );
+    }
+
+    @Transactional(readOnly = true)
+    @GetMapping(GET_BOARD)
+    public ResponseEntity<BoardDto> getBoard(@PathVariable("project_id") Long projectId, WebRequest request) {
 
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project's info.");
+        final String eTag = BoardVersionHelper.toETag(authorizationHelper.checkProjectOwnerAndGetVersion(
+                projectId,
+                "You do not have permission to access this project's info."
+        ));
+
+        if (request.checkNotModified(eTag)) {
+            return null;
         }
 
-        return project
-                .getTaskStates()
-                .stream()
-                .map(taskStateDtoMapper::createTaskStateDto)
-                .toList();
+        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+
+        List<TaskStateEntity> taskStates = taskStateRepository.findAllWithTasksByProjectIdOrderByOrdinalAsc(projectId);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(
+                        BoardDto.builder()
+                                .project(projectDtoMapper.createProjectDto(project))
+                                .taskStates(
+                                        taskStates
+                                                .stream()
+                                                .map(taskStateDtoMapper::createTaskStateDto)
+                                                .toList()
+                                )
+                                .build()
+                );
     }
 
     @PostMapping(CREATE_TASK_STATE)
@@ -56,36 +114,24 @@ public class TaskStateController {
             @RequestParam(name = "task_state_name") String taskStateName
     ) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
+        authorizationHelper.checkProjectOwnerOrThrowException(projectId, AuthorizationHelper.ACCESS_DENIED);
 
         if (taskStateName.isBlank()) {
             throw new BadRequestException("Task state name can't be empty.");
         }
 
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
+        if (taskStateRepository.existsByProjectIdAndNameIgnoreCase(projectId, taskStateName)) {
+            throw new BadRequestException(String.format("Task state \"%s\" already exists.", taskStateName));
         }
 
-        Optional<TaskStateEntity> optionalAnotherTaskState = Optional.empty();
-
-        for (TaskStateEntity taskState : project.getTaskStates()) {
-
-            if (taskState.getName().equalsIgnoreCase(taskStateName)) {
-                throw new BadRequestException(String.format("Task state \"%s\" already exists.", taskStateName));
-            }
-
-            if (taskState.getRightTaskState().isEmpty()) {
-                optionalAnotherTaskState = Optional.of(taskState);
-                break;
-            }
-        }
+        Optional<TaskStateEntity> optionalAnotherTaskState = taskStateRepository
+                .findFirstByProjectIdOrderByOrdinalDesc(projectId);
 
         TaskStateEntity taskState = taskStateRepository.saveAndFlush(
                 TaskStateEntity.builder()
                         .name(taskStateName)
-                        .project(project)
+                        .ordinal(optionalAnotherTaskState.map(it -> it.getOrdinal() + 1).orElse(0))
+                        .project(projectRepository.getReferenceById(projectId))
                         .build()
         );
 
@@ -101,7 +147,14 @@ public class TaskStateController {
 
         final TaskStateEntity savedTaskState = taskStateRepository.saveAndFlush(taskState);
 
-        return taskStateDtoMapper.createTaskStateDto(savedTaskState);
+        secondLevelCacheHelper.evictProjectTaskStates(projectId);
+        boardVersionHelper.recordChange(projectId, BoardChangeType.TASK_STATES_CHANGED);
+
+        TaskStateDto taskStateDto = taskStateDtoMapper.createTaskStateDto(savedTaskState);
+
+        publishTaskStateEvent(BoardEventType.TASK_STATE_CREATED, projectId, taskStateDto);
+
+        return taskStateDto;
     }
 
     @PatchMapping(UPDATE_TASK_STATE)
@@ -111,13 +164,7 @@ public class TaskStateController {
             @RequestParam(name = "task_state_name") String taskStateName
     ) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
-
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
-        }
+        authorizationHelper.checkTaskStateOwnerOrThrowException(projectId, taskStateId);
 
         if (taskStateName.isBlank()) {
             throw new BadRequestException("Task state name can't be empty.");
@@ -126,10 +173,7 @@ public class TaskStateController {
         TaskStateEntity taskState = controllerHelper.getTaskStateIdOrThrowException(taskStateId);
 
         taskStateRepository
-                .findTaskStateEntityByProjectIdAndNameContainsIgnoreCase(
-                        taskState.getProject().getId(),
-                        taskStateName
-                )
+                .findTaskStateEntityByProjectIdAndNameContainsIgnoreCase(projectId, taskStateName)
                 .filter(anotherTaskState -> !anotherTaskState.getId().equals(taskStateId))
                 .ifPresent(anotherTaskState -> {
                     throw new BadRequestException(String.format("Task state \"%s\" already exists.", taskStateName));
@@ -139,7 +183,13 @@ public class TaskStateController {
 
         taskState = taskStateRepository.saveAndFlush(taskState);
 
-        return taskStateDtoMapper.createTaskStateDto(taskState);
+        boardVersionHelper.recordChange(projectId, BoardChangeType.TASK_STATES_CHANGED);
+
+        TaskStateDto taskStateDto = taskStateDtoMapper.createTaskStateDto(taskState);
+
+        publishTaskStateEvent(BoardEventType.TASK_STATE_UPDATED, projectId, taskStateDto);
+
+        return taskStateDto;
     }
 
     @PatchMapping(CHANGE_TASK_STATE_POSITION)
@@ -149,13 +199,7 @@ public class TaskStateController {
             @RequestParam(name = "left_task_state_id", required = false) Optional<Long> optionalLeftTaskStateId
     ) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
-
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
-        }
+        authorizationHelper.checkTaskStateOwnerOrThrowException(projectId, taskStateId);
 
         TaskStateEntity taskToChange = controllerHelper
                 .getTaskStateIdOrThrowException(taskStateId);
@@ -178,7 +222,7 @@ public class TaskStateController {
                     TaskStateEntity leftTaskStateEntity = controllerHelper
                             .getTaskStateIdOrThrowException(leftTaskStateId);
 
-                    if (!project.getId().equals(leftTaskStateEntity.getProject().getId())) {
+                    if (!projectId.equals(leftTaskStateEntity.getProject().getId())) {
                         throw new BadRequestException("Task state position can be changed within the same project.");
                     }
 
@@ -188,11 +232,8 @@ public class TaskStateController {
         Optional<TaskStateEntity> optionalNewRightTaskState;
         if (optionalNewLeftTaskState.isEmpty()) {
 
-            optionalNewRightTaskState = project
-                    .getTaskStates()
-                    .stream()
-                    .filter(anotherTaskState -> anotherTaskState.getLeftTaskState().isEmpty())
-                    .findAny();
+            optionalNewRightTaskState = taskStateRepository
+                    .findFirstByProjectIdOrderByOrdinalAsc(projectId);
         } else {
 
             optionalNewRightTaskState = optionalNewLeftTaskState
@@ -232,7 +273,37 @@ public class TaskStateController {
         optionalNewRightTaskState
                 .ifPresent(taskStateRepository::saveAndFlush);
 
-        return taskStateDtoMapper.createTaskStateDto(taskToChange);
+        int oldOrdinal = taskToChange.getOrdinal();
+        int newOrdinal;
+
+        if (optionalNewLeftTaskState.isEmpty()) {
+
+            newOrdinal = 0;
+
+            taskStateRepository.shiftOrdinalsRight(projectId, newOrdinal, oldOrdinal);
+        } else if (optionalNewLeftTaskState.get().getOrdinal() < oldOrdinal) {
+
+            newOrdinal = optionalNewLeftTaskState.get().getOrdinal() + 1;
+
+            taskStateRepository.shiftOrdinalsRight(projectId, newOrdinal, oldOrdinal);
+        } else {
+
+            newOrdinal = optionalNewLeftTaskState.get().getOrdinal();
+
+            taskStateRepository.shiftOrdinalsLeft(projectId, oldOrdinal, newOrdinal);
+        }
+
+        taskToChange.setOrdinal(newOrdinal);
+
+        taskToChange = taskStateRepository.saveAndFlush(taskToChange);
+
+        boardVersionHelper.recordChange(projectId, BoardChangeType.TASK_STATES_CHANGED);
+
+        TaskStateDto taskStateDto = taskStateDtoMapper.createTaskStateDto(taskToChange);
+
+        publishTaskStateEvent(BoardEventType.TASK_STATE_MOVED, projectId, taskStateDto);
+
+        return taskStateDto;
     }
 
     @DeleteMapping(DELETE_TASK_STATE)
@@ -241,13 +312,7 @@ public class TaskStateController {
             @PathVariable(name = "task_state_id"
             ) Long taskStateId) {
 
-        final UserEntity currentUser = controllerHelper.getCurrentUser();
-
-        final ProjectEntity project = controllerHelper.getProjectOrThrowException(projectId);
-
-        if (!Objects.equals(project.getAppUser().getId(), currentUser.getId())) {
-            throw new BadRequestException("You do not have permission to access this project.");
-        }
+        authorizationHelper.checkTaskStateOwnerOrThrowException(projectId, taskStateId);
 
         TaskStateEntity changeTaskState = controllerHelper.getTaskStateIdOrThrowException(taskStateId);
 
@@ -255,9 +320,37 @@ public class TaskStateController {
 
         taskStateRepository.delete(changeTaskState);
 
+        taskStateRepository.shiftOrdinalsLeft(projectId, changeTaskState.getOrdinal(), Integer.MAX_VALUE);
+
+        secondLevelCacheHelper.evictProjectTaskStates(projectId);
+        boardVersionHelper.recordChange(projectId, BoardChangeType.TASK_STATES_CHANGED);
+
+        boardEventHub.publishAfterCommit(
+                projectId,
+                BoardEventDto.builder()
+                        .type(BoardEventType.TASK_STATE_DELETED)
+                        .taskStateId(taskStateId)
+                        .build()
+        );
+
         return ResponseEntity.ok(String.format("Task state with id - \"%s\" was successfully deleted", taskStateId));
     }
 
+    private void publishTaskStateEvent(BoardEventType type, Long projectId, TaskStateDto taskStateDto) {
+
+        // Задачи колонки в событие не входят: они приходят собственными событиями
+        boardEventHub.publishAfterCommit(
+                projectId,
+                BoardEventDto.builder()
+                        .type(type)
+                        .taskStateId(taskStateDto.getId())
+                        .taskStateName(taskStateDto.getName())
+                        .leftTaskStateId(taskStateDto.getLeftTaskStateId())
+                        .rightTaskStateId(taskStateDto.getRightTaskStateId())
+                        .build()
+        );
+    }
+
     private void replaceOldTaskStatePosition(TaskStateEntity changeTaskState) {
 
         Optional<TaskStateEntity> optionalOldLeftTaskState = changeTaskState.getLeftTaskState();
@@ -0,0 +1,93 @@
+package org.example.api.controllers.helpers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.exceptions.BadRequestException;
+import org.example.api.exceptions.NotFoundException;
+import org.example.store.repositories.ProjectOwnershipProjection;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionProjection;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/*
+AuthorizationHelper:
+Проверка, что проект принадлежит текущему пользователю. Id проекта и id владельца читаются одним запросом
+скалярных значений по первичному ключу, без загрузки цепочки задача -> колонка -> проект -> пользователь.
+ */
+@RequiredArgsConstructor
+@Component
+public class AuthorizationHelper {
+
+    public static final String ACCESS_DENIED = "You do not have permission to access this project.";
+
+    private final ControllerHelper controllerHelper;
+    private final ProjectRepository projectRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final TaskRepository taskRepository;
+
+    public void checkProjectOwnerOrThrowException(Long projectId, String accessDeniedMessage) {
+
+        Long ownerId = projectRepository
+                .findOwnerIdById(projectId)
+                .orElseThrow(() ->
+                        new NotFoundException(String.format("Project with \"%s\" doesn't exist.", projectId)));
+
+        checkOwnerOrThrowException(ownerId, accessDeniedMessage);
+    }
+
+    public long checkProjectOwnerAndGetVersion(Long projectId, String accessDeniedMessage) {
+
+        ProjectVersionProjection projectVersion = projectRepository
+                .findOwnerIdAndVersionById(projectId)
+                .orElseThrow(() ->
+                        new NotFoundException(String.format("Project with \"%s\" doesn't exist.", projectId)));
+
+        checkOwnerOrThrowException(projectVersion.getOwnerId(), accessDeniedMessage);
+
+        return projectVersion.getVersion();
+    }
+
+    public ProjectOwnershipProjection checkTaskStateOwnerOrThrowException(Long taskStateId) {
+
+        ProjectOwnershipProjection ownership = taskStateRepository
+                .findOwnershipById(taskStateId)
+                .orElseThrow(() ->
+                        new NotFoundException(String.format("Task state \"%s\" doesn't exist.", taskStateId)));
+
+        checkOwnerOrThrowException(ownership.getOwnerId(), ACCESS_DENIED);
+
+        return ownership;
+    }
+
+    public void checkTaskStateOwnerOrThrowException(Long projectId, Long taskStateId) {
+
+        ProjectOwnershipProjection ownership = checkTaskStateOwnerOrThrowException(taskStateId);
+
+        if (!Objects.equals(ownership.getProjectId(), projectId)) {
+            throw new BadRequestException(
+                    String.format("Task state \"%s\" doesn't belong to project \"%s\".", taskStateId, projectId));
+        }
+    }
+
+    public ProjectOwnershipProjection checkTaskOwnerOrThrowException(Long taskId) {
+
+        ProjectOwnershipProjection ownership = taskRepository
+                .findOwnershipById(taskId)
+                .orElseThrow(() ->
+                        new NotFoundException(String.format("Task \"%s\" doesn't exist.", taskId)));
+
+        checkOwnerOrThrowException(ownership.getOwnerId(), ACCESS_DENIED);
+
+        return ownership;
+    }
+
+    private void checkOwnerOrThrowException(Long ownerId, String accessDeniedMessage) {
+
+        if (!Objects.equals(ownerId, controllerHelper.getCurrentUserId())) {
+            throw new BadRequestException(accessDeniedMessage);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package org.example.api.controllers.helpers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.BoardEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+BoardEventHub:
+Рассылка изменений доски подписчикам SSE (BoardEventController). Контроллеры публикуют событие после коммита,
+оно один раз сериализуется, получает id и кладётся в кольцевой буфер проекта (boards.events.replay-buffer-size)
+и в очереди подписчиков. В сокет пишет отдельный пул обычных потоков (boards.events.sender-threads): подписчик
+с непустой очередью занимает поток, пока не отправит её, поэтому публикующий запрос никогда не ждёт медленного
+клиента, а между правками потоки свободны. Виртуальные потоки здесь не используются: они включаются отдельно
+(spring.threads.virtual.enabled).
+Если очередь подписчика переполнена (boards.events.subscriber-queue-size), он отключается: клиент переподключится
+с Last-Event-ID и получит пропущенное из буфера. Если нужных событий в буфере уже нет (или приложение
+перезапускалось), клиент получает resync и перечитывает доску.
+Каналы проектов без подписчиков и без событий дольше boards.events.retention удаляются BoardEventHeartbeatJob.
+Метрики: board_events.subscribers, board_events.published, board_events.evicted.
+ */
+@Slf4j
+@Component
+public class BoardEventHub {
+
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final ObjectMapper objectMapper;
+
+    private final int replayBufferSize;
+
+    private final int subscriberQueueSize;
+
+    private final Duration emitterTimeout;
+
+    private final Duration retention;
+
+    private final ThreadPoolExecutor executor;
+
+    // Id событий растут и между перезапусками, поэтому Last-Event-ID от прошлого запуска распознаётся как устаревший
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscribersCount = new AtomicInteger();
+
+    private final Counter publishedCounter;
+
+    private final Counter evictedCounter;
+
+    public BoardEventHub(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${boards.events.replay-buffer-size:256}") int replayBufferSize,
+            @Value("${boards.events.subscriber-queue-size:256}") int subscriberQueueSize,
+            @Value("${boards.events.sender-threads:8}") int senderThreads,
+            @Value("${boards.events.timeout:PT30M}") Duration emitterTimeout,
+            @Value("${boards.events.retention:PT10M}") Duration retention
+    ) {
+
+        this.objectMapper = objectMapper;
+        this.replayBufferSize = replayBufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.emitterTimeout = emitterTimeout;
+        this.retention = retention;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // Очередь задач не ограничена, но в ней не больше одной задачи на подписчика: drain ставится, только если
+        // подписчик ещё не отправляет
+        this.executor = new ThreadPoolExecutor(
+                senderThreads,
+                senderThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "board-events-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+        Gauge.builder("board_events.subscribers", subscribersCount, AtomicInteger::get)
+                .description("Open board event streams")
+                .register(meterRegistry);
+
+        this.publishedCounter = Counter.builder("board_events.published")
+                .description("Board events published to subscribers")
+                .register(meterRegistry);
+
+        this.evictedCounter = Counter.builder("board_events.evicted")
+                .description("Board event streams closed because the client did not keep up")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long projectId, Optional<String> lastEventId) {
+
+        return subscribe(projectId, lastEventId, new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    public SseEmitter subscribe(Long projectId, Optional<String> lastEventId, SseEmitter emitter) {
+
+        Subscriber subscriber = register(projectId, lastEventId, emitter);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+
+        return emitter;
+    }
+
+    public void publishAfterCommit(Long projectId, BoardEventDto event) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(projectId, event);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(projectId, event);
+            }
+        });
+    }
+
+    public void publish(Long projectId, BoardEventDto event) {
+
+        String data;
+
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Board event {} of project {} can't be serialized", event.getType(), projectId, e);
+            return;
+        }
+
+        while (true) {
+
+            Channel channel = channels.computeIfAbsent(projectId, id -> new Channel(sequence.get()));
+
+            synchronized (channel) {
+
+                if (channel.removed) {
+                    continue;
+                }
+
+                long id = sequence.incrementAndGet();
+
+                Set<DataWithMediaType> message = SseEmitter.event()
+                        .id(String.valueOf(id))
+                        .name(event.getType().getEventName())
+                        .data(data)
+                        .build();
+
+                channel.append(id, message);
+                channel.broadcast(message);
+
+                publishedCounter.increment();
+                return;
+            }
+        }
+    }
+
+    public void closeAfterCommit(Long projectId) {
+
+        Runnable close = () -> {
+
+            Channel channel = channels.remove(projectId);
+
+            if (channel == null) {
+                return;
+            }
+
+            synchronized (channel) {
+
+                channel.removed = true;
+
+                channel.subscribers.forEach(Subscriber::close);
+                subscribersCount.addAndGet(-channel.subscribers.size());
+                channel.subscribers.clear();
+            }
+        };
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            close.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                close.run();
+            }
+        });
+    }
+
+    public void sendHeartbeats() {
+
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment(HEARTBEAT_COMMENT).build();
+
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                channel.broadcast(heartbeat);
+            }
+        }
+    }
+
+    public void pruneIdleChannels() {
+
+        long idleSince = System.nanoTime() - retention.toNanos();
+
+        channels.forEach((projectId, channel) -> {
+            synchronized (channel) {
+                if (channel.subscribers.isEmpty() && channel.lastPublishedAt - idleSince < 0) {
+                    channel.removed = true;
+                    channels.remove(projectId, channel);
+                }
+            }
+        });
+    }
+
+    public int getSubscribersCount() {
+
+        return subscribersCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        channels.keySet().forEach(projectId -> {
+
+            Channel channel = channels.remove(projectId);
+
+            if (channel != null) {
+                synchronized (channel) {
+                    channel.removed = true;
+                    channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+                    channel.subscribers.clear();
+                }
+            }
+        });
+
+        executor.shutdownNow();
+    }
+
+    private Subscriber register(Long projectId, Optional<String> lastEventId, SseEmitter emitter) {
+
+        while (true) {
+
+            Channel channel = channels.computeIfAbsent(projectId, id -> new Channel(sequence.get()));
+
+            synchronized (channel) {
+
+                if (channel.removed) {
+                    continue;
+                }
+
+                Subscriber subscriber = new Subscriber(channel, emitter);
+
+                // Пропущенные события и регистрация - под одной блокировкой, чтобы не потерять и не задвоить событие
+                if (lastEventId.isPresent()) {
+                    channel.eventsAfter(lastEventId.get()).ifPresentOrElse(
+                            events -> events.forEach(subscriber::enqueueReplay),
+                            () -> subscriber.enqueueReplay(resyncMessage(channel.lastEventId()))
+                    );
+                }
+
+                channel.subscribers.add(subscriber);
+                subscribersCount.incrementAndGet();
+
+                return subscriber;
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+
+        synchronized (subscriber.channel) {
+            if (subscriber.channel.subscribers.remove(subscriber)) {
+                subscribersCount.decrementAndGet();
+            }
+        }
+
+        // Поток уже завершён контейнером, остаётся только перестать слать в него события
+        subscriber.markClosed();
+    }
+
+    private static Set<DataWithMediaType> resyncMessage(long eventId) {
+
+        return SseEmitter.event()
+                .id(String.valueOf(eventId))
+                .name(BoardEventType.RESYNC.getEventName())
+                .data("{\"type\":\"" + BoardEventType.RESYNC.getEventName() + "\"}")
+                .build();
+    }
+
+    private record BufferedEvent(long id, Set<DataWithMediaType> message) {
+    }
+
+    // Все поля канала меняются только под его монитором
+    private class Channel {
+
+        private final ArrayDeque<BufferedEvent> events = new ArrayDeque<>();
+
+        private final Set<Subscriber> subscribers = new HashSet<>();
+
+        // События с id не больше этого значения могли быть потеряны: вытеснены из буфера или опубликованы до создания канала
+        private long lowWatermark;
+
+        private long lastPublishedAt = System.nanoTime();
+
+        private boolean removed;
+
+        private Channel(long lowWatermark) {
+            this.lowWatermark = lowWatermark;
+        }
+
+        private void append(long id, Set<DataWithMediaType> message) {
+
+            if (events.size() >= replayBufferSize) {
+                lowWatermark = events.removeFirst().id();
+            }
+
+            events.addLast(new BufferedEvent(id, message));
+            lastPublishedAt = System.nanoTime();
+        }
+
+        private long lastEventId() {
+
+            return events.isEmpty() ? lowWatermark : events.getLast().id();
+        }
+
+        private Optional<List<Set<DataWithMediaType>>> eventsAfter(String lastEventId) {
+
+            long lastSeenId;
+
+            try {
+                lastSeenId = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+
+            if (lastSeenId < lowWatermark || lastSeenId > lastEventId()) {
+                return Optional.empty();
+            }
+
+            List<Set<DataWithMediaType>> missed = new ArrayList<>();
+
+            for (BufferedEvent event : events) {
+                if (event.id() > lastSeenId) {
+                    missed.add(event.message());
+                }
+            }
+
+            return Optional.of(missed);
+        }
+
+        private void broadcast(Set<DataWithMediaType> message) {
+
+            Iterator<Subscriber> iterator = subscribers.iterator();
+
+            while (iterator.hasNext()) {
+
+                Subscriber subscriber = iterator.next();
+
+                if (!subscriber.enqueue(message)) {
+
+                    iterator.remove();
+                    subscribersCount.decrementAndGet();
+                    evictedCounter.increment();
+
+                    log.debug("Board event subscriber evicted: queue of {} messages is full", subscriberQueueSize);
+
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    private class Subscriber {
+
+        private final Channel channel;
+
+        private final SseEmitter emitter;
+
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+
+        private boolean draining;
+
+        private boolean closed;
+
+        private Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        private boolean enqueue(Set<DataWithMediaType> message) {
+
+            return offer(message, false);
+        }
+
+        private void enqueueReplay(Set<DataWithMediaType> message) {
+
+            // Пропущенные события отправляются целиком, даже если их больше, чем вмещает очередь
+            offer(message, true);
+        }
+
+        private boolean offer(Set<DataWithMediaType> message, boolean force) {
+
+            synchronized (this) {
+
+                if (closed) {
+                    return true;
+                }
+
+                if (!force && queue.size() >= subscriberQueueSize) {
+                    return false;
+                }
+
+                queue.addLast(message);
+
+                if (draining) {
+                    return true;
+                }
+
+                draining = true;
+            }
+
+            executor.execute(this::drain);
+
+            return true;
+        }
+
+        private void drain() {
+
+            while (true) {
+
+                Set<DataWithMediaType> message;
+
+                synchronized (this) {
+
+                    message = closed ? null : queue.pollFirst();
+
+                    if (message == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+
+                try {
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент отключился: контейнер завершит запрос, а onError/onCompletion снимут подписку
+                    close();
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+
+            // complete() может ждать зависшую запись в сокет, поэтому не вызываем его в потоке публикации
+            if (markClosed()) {
+                executor.execute(emitter::complete);
+            }
+        }
+
+        private synchronized boolean markClosed() {
+
+            if (closed) {
+                return false;
+            }
+
+            closed = true;
+            queue.clear();
+
+            return true;
+        }
+    }
+}
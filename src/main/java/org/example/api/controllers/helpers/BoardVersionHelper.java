@@ -0,0 +1,66 @@
+package org.example.api.controllers.helpers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.store.entities.BoardChangeType;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.repositories.BoardChangeRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.springframework.stereotype.Component;
+
+/*
+BoardVersionHelper:
+Счётчик версий доски проекта (таблица project_version). Каждое изменение колонок, задач или самого проекта
+увеличивает версию в той же транзакции, а GET-эндпоинты доски отдают её как сильный ETag и отвечают 304
+на If-None-Match, не загружая колонки и задачи. Строка версии создаётся вместе с проектом; для проектов,
+созданных до появления счётчика, она вставляется при первом изменении.
+Вместе с версией в журнал board_change пишется, что именно изменилось, ровно одна запись на версию:
+по журналу BoardChangeController отдаёт клиенту изменения после известной ему версии.
+ */
+@RequiredArgsConstructor
+@Component
+public class BoardVersionHelper {
+
+    private final ProjectVersionRepository projectVersionRepository;
+    private final BoardChangeRepository boardChangeRepository;
+
+    public void create(Long projectId) {
+
+        projectVersionRepository.save(new ProjectVersionEntity(projectId, 0));
+    }
+
+    public void recordChange(Long projectId, BoardChangeType type) {
+
+        incrementVersion(projectId);
+
+        boardChangeRepository.insertForCurrentVersion(projectId, type.name());
+    }
+
+    public void recordChange(Long projectId, BoardChangeType type, Long taskId) {
+
+        incrementVersion(projectId);
+
+        boardChangeRepository.insertForCurrentVersion(projectId, type.name(), taskId);
+    }
+
+    public void delete(Long projectId) {
+
+        projectVersionRepository.deleteByProjectId(projectId);
+        boardChangeRepository.deleteByProjectId(projectId);
+    }
+
+    public static String toETag(long version) {
+
+        return "\"" + version + "\"";
+    }
+
+    private void incrementVersion(Long projectId) {
+
+        // Строка версии остаётся заблокированной до коммита, поэтому запись журнала получает именно нашу версию
+        if (projectVersionRepository.incrementVersion(projectId) == 0) {
+            // Для проектов без строки версии: вставка с on conflict не гоняется с параллельным первым изменением,
+            // и обе транзакции затем увеличивают одну и ту же строку
+            projectVersionRepository.insertIfAbsent(projectId);
+            projectVersionRepository.incrementVersion(projectId);
+        }
+    }
+}
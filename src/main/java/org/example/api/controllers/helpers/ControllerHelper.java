@@ -3,6 +3,7 @@ package org.example.api.controllers.helpers;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.example.api.exceptions.NotFoundException;
+import org.example.config.AuthenticatedUser;
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.TaskEntity;
 import org.example.store.entities.TaskStateEntity;
@@ -24,6 +25,7 @@ public class ControllerHelper {
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final TaskStateRepository taskStateRepository;
+    private final UserIdCache userIdCache;
 
     public ProjectEntity getProjectOrThrowException(Long projectId) {
 
@@ -41,6 +43,7 @@ public class ControllerHelper {
 
     public TaskStateEntity getTaskStateIdOrThrowException(Long taskStateId) {
 
+        // findById, а не запрос с join: колонка и её проект берутся из второго уровня кэша
         return taskStateRepository
                 .findById(taskStateId)
                 .orElseThrow(() ->
@@ -57,11 +60,32 @@ public class ControllerHelper {
 
     public UserEntity getCurrentUser() {
 
+        // Ссылка без запроса к базе: для проверок владельца и параметров запросов достаточно id
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
+    public UserEntity getCurrentUserOrThrowException() {
+
+        // Для путей, где пользователь сохраняется внешним ключом (создание проекта, импорт): удалённый пользователь
+        // с ещё действующим токеном получает ошибку, а не нарушение внешнего ключа. Обычно читается из второго уровня кэша
+        Long userId = getCurrentUserId();
+
+        return userRepository
+                .findById(userId)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+    }
+
+    public Long getCurrentUserId() {
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        String username = authentication.getName();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser
+                && authenticatedUser.getId() != null) {
+            return authenticatedUser.getId();
+        }
 
-        return userRepository.findByUsername(username)
+        return userIdCache
+                .getUserId(authentication.getName(), username -> userRepository.findByUsername(username).map(UserEntity::getId))
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
@@ -0,0 +1,167 @@
+package org.example.api.controllers.helpers;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+PasswordHashingHelper:
+BCrypt выполняется в отдельном пуле потоков фиксированного размера с ограниченной очередью: одновременно хэшируется
+не больше паролей, чем потоков в пуле, и всплеск логинов не забирает процессор у остального API.
+Поток запроса при этом ждёт результата, но не дольше auth.password-hashing.max-wait (по умолчанию 500 мс - это
+несколько хэшей стоимости 10 в очереди на поток). Если очередь заполнена, 429 с Retry-After приходит сразу, без ожидания;
+если хэш не посчитан за max-wait - по его истечении. Так всплеск логинов занимает потоки Tomcat не дольше max-wait.
+Пул состоит из обычных потоков и в режиме виртуальных потоков: BCrypt нагружает процессор, а не ждёт ввода-вывода.
+Метрики: auth.password_hashing.queue.depth, auth.password_hashing.active, auth.password_hashing.duration
+(по операциям encode/matches) и auth.password_hashing.rejected.
+ */
+@Slf4j
+@Component
+public class PasswordHashingHelper {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int bcryptStrength;
+
+    private final Duration maxWait;
+
+    private final Duration retryAfter;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHashingHelper(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${auth.password-hashing.max-wait:PT0.5S}") Duration maxWait,
+            @Value("${auth.password-hashing.retry-after:PT1S}") Duration retryAfter
+    ) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.bcryptStrength = bcryptStrength;
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("auth.password_hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        this.encodeTimer = Timer.builder("auth.password_hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password_hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password_hashing.rejected")
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+
+        return submitAndWait(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+
+        return submitAndWait(() -> matchesTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // Хэш посчитан с другой стоимостью, чем задана сейчас в auth.password-hashing.bcrypt-strength
+    public boolean needsRehash(String encodedPassword) {
+
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdown();
+    }
+
+    private <T> T submitAndWait(Callable<T> task) {
+
+        Future<T> future;
+
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw rejected();
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw rejected();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw rejected();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private TooManyRequestsException rejected() {
+
+        rejectedCounter.increment();
+
+        log.debug("Password hashing is saturated, queue depth {}", executor.getQueue().size());
+
+        return new TooManyRequestsException("Too many authentication requests, try again later.", retryAfter);
+    }
+}
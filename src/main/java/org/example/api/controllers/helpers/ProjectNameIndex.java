@@ -0,0 +1,205 @@
+package org.example.api.controllers.helpers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.dto.ProjectDto;
+import org.example.api.mappers.ProjectDtoMapper;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/*
+ProjectNameIndex:
+Индекс названий проектов в памяти для автодополнения по префиксу. Для каждого пользователя хранится
+отсортированный массив названий в нижнем регистре, префикс ищется бинарным поиском без похода в базу.
+Индекс пользователя сбрасывается после коммита транзакции, которая создала, переименовала или удалила проект.
+Память ограничена числом пользователей (projects.name-index.max-users), давно не обращавшиеся пользователи
+вытесняются первыми, а простаивающие дольше projects.name-index.idle-timeout удаляются ProjectNameIndexEvictionJob.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProjectNameIndex {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectDtoMapper projectDtoMapper;
+
+    @Value("${projects.name-index.max-users:10000}")
+    private int maxUsers = 10000;
+
+    @Value("${projects.name-index.idle-timeout:PT30M}")
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Порядок доступа: первыми идут пользователи, к которым дольше всего не обращались
+    private final LinkedHashMap<Long, UserProjects> usersProjects = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Меняется при каждом сбросе, чтобы не сохранить индекс, прочитанный до коммита изменений
+    private long invalidations;
+
+    public List<ProjectDto> findByPrefix(UserEntity user, String prefix) {
+
+        return getOrLoad(user).findByPrefix(normalize(prefix));
+    }
+
+    public void invalidateAfterCommit(Long userId) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(userId);
+            }
+        });
+    }
+
+    public void invalidate(Long userId) {
+
+        lock.lock();
+        try {
+            invalidations++;
+            usersProjects.remove(userId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evictIdleUsers() {
+
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+
+        lock.lock();
+        try {
+            Iterator<UserProjects> iterator = usersProjects.values().iterator();
+
+            while (iterator.hasNext() && iterator.next().lastAccess - idleSince < 0) {
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UserProjects getOrLoad(UserEntity user) {
+
+        long loadedAfterInvalidations;
+
+        lock.lock();
+        try {
+            UserProjects cached = usersProjects.get(user.getId());
+
+            if (cached != null) {
+                cached.lastAccess = System.nanoTime();
+                return cached;
+            }
+
+            loadedAfterInvalidations = invalidations;
+        } finally {
+            lock.unlock();
+        }
+
+        UserProjects loaded = load(user);
+
+        lock.lock();
+        try {
+            if (invalidations == loadedAfterInvalidations) {
+
+                usersProjects.put(user.getId(), loaded);
+
+                Iterator<UserProjects> iterator = usersProjects.values().iterator();
+
+                while (usersProjects.size() > maxUsers && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return loaded;
+    }
+
+    private UserProjects load(UserEntity user) {
+
+        List<ProjectDto> projects = new ArrayList<>();
+
+        try (Stream<ProjectEntity> projectStream = projectRepository.streamAllByAppUser(user)) {
+            projectStream.map(projectDtoMapper::createProjectDto).forEach(projects::add);
+        }
+
+        projects.sort(Comparator
+                .comparing((ProjectDto project) -> normalize(project.getName()))
+                .thenComparing(ProjectDto::getId));
+
+        String[] names = new String[projects.size()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = normalize(projects.get(i).getName());
+        }
+
+        return new UserProjects(names, projects.toArray(new ProjectDto[0]));
+    }
+
+    private static String normalize(String name) {
+
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class UserProjects {
+
+        private final String[] names;
+
+        private final ProjectDto[] projects;
+
+        private long lastAccess = System.nanoTime();
+
+        private UserProjects(String[] names, ProjectDto[] projects) {
+            this.names = names;
+            this.projects = projects;
+        }
+
+        private List<ProjectDto> findByPrefix(String prefix) {
+
+            // Первое название, которое не меньше префикса
+            int low = 0;
+            int high = names.length;
+
+            while (low < high) {
+
+                int middle = (low + high) >>> 1;
+
+                if (names[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            List<ProjectDto> result = new ArrayList<>();
+
+            for (int i = low; i < names.length && names[i].startsWith(prefix); i++) {
+                result.add(projects[i]);
+            }
+
+            return result;
+        }
+    }
+}
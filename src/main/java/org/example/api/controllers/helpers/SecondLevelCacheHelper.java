@@ -0,0 +1,56 @@
+package org.example.api.controllers.helpers;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.UserEntity;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+SecondLevelCacheHelper:
+Коллекции ProjectEntity.taskStates и UserEntity.projects лежат во втором уровне кэша, но новые колонки
+и проекты сохраняются со стороны дочерней сущности, поэтому Hibernate сам их не сбрасывает.
+Коллекция сбрасывается сразу и ещё раз после завершения транзакции, чтобы параллельное чтение
+не положило в кэш состояние до коммита.
+ */
+@RequiredArgsConstructor
+@Component
+public class SecondLevelCacheHelper {
+
+    private static final String PROJECT_TASK_STATES = ProjectEntity.class.getName() + ".taskStates";
+    private static final String USER_PROJECTS = UserEntity.class.getName() + ".projects";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictProjectTaskStates(Long projectId) {
+
+        evictCollection(PROJECT_TASK_STATES, projectId);
+    }
+
+    public void evictUserProjects(Long userId) {
+
+        evictCollection(USER_PROJECTS, userId);
+    }
+
+    private void evictCollection(String role, Long ownerId) {
+
+        Runnable evict = () -> entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictCollectionData(role, ownerId);
+
+        evict.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.api.controllers.helpers;
+
+public enum TaskOrderingMode {
+
+    /** Tasks are ordered by the integer {@code position}, moves shift the neighbouring rows. */
+    POSITION,
+
+    /** Tasks are ordered by the string {@code rankKey}, a move or insert writes only the moved row. */
+    RANK
+}
@@ -0,0 +1,81 @@
+package org.example.api.controllers.helpers;
+
+import lombok.RequiredArgsConstructor;
+import org.example.store.entities.TaskEntity;
+import org.example.store.repositories.TaskRepository;
+import org.example.utils.RankKeyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Component
+public class TaskRankHelper {
+
+    private final TaskRepository taskRepository;
+
+    @Value("${tasks.ordering.mode:POSITION}")
+    private TaskOrderingMode orderingMode = TaskOrderingMode.POSITION;
+
+    public boolean isRankMode() {
+
+        return orderingMode == TaskOrderingMode.RANK;
+    }
+
+    public List<TaskEntity> sortByRankKey(Collection<TaskEntity> tasks) {
+
+        return tasks
+                .stream()
+                .sorted(Comparator.comparing(TaskEntity::getRankKey, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparingInt(TaskEntity::getPosition)
+                        .thenComparing(TaskEntity::getId))
+                .toList();
+    }
+
+    public String getRankKeyAfterLast(Long taskStateId) {
+
+        return RankKeyUtil.after(getLastRankKey(taskStateId));
+    }
+
+    public String getLastRankKey(Long taskStateId) {
+
+        return taskRepository
+                .findFirstByTaskStateIdAndRankKeyNotNullOrderByRankKeyDesc(taskStateId)
+                .map(TaskEntity::getRankKey)
+                .orElse(null);
+    }
+
+    public String getRankKeyForPosition(Long taskStateId, Long taskId, int newPosition) {
+
+        List<String> rankKeys = taskRepository.findRankKeysAround(taskStateId, taskId, Math.max(newPosition - 1, 0));
+
+        if (newPosition == 0) {
+            return RankKeyUtil.between(null, rankKeys.isEmpty() ? null : rankKeys.get(0));
+        }
+
+        String leftRankKey = rankKeys.isEmpty() ? null : rankKeys.get(0);
+        String rightRankKey = rankKeys.size() > 1 ? rankKeys.get(1) : null;
+
+        // Перемещение в конец колонки - то же добавление, ключ не должен расти с каждым перемещением
+        return rightRankKey == null
+                ? RankKeyUtil.after(leftRankKey)
+                : RankKeyUtil.between(leftRankKey, rightRankKey);
+    }
+
+    public int getPosition(TaskEntity task) {
+
+        // Порядок тот же, что в sortByRankKey: задачи без ключа после остальных
+        if (task.getRankKey() == null) {
+            return (int) taskRepository.countByTaskStateIdBeforeUnranked(
+                    task.getTaskState().getId(),
+                    task.getPosition(),
+                    task.getId()
+            );
+        }
+
+        return (int) taskRepository.countByTaskStateIdAndRankKeyLessThan(task.getTaskState().getId(), task.getRankKey());
+    }
+}
@@ -0,0 +1,301 @@
+package org.example.api.controllers.helpers;
+
+import org.example.store.entities.TaskEntity;
+import org.example.store.repositories.TaskSearchProjection;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+TaskSearchIndex:
+Инвертированный индекс по названиям и описаниям задач, отдельный для каждого пользователя.
+Текст разбивается на слова в нижнем регистре, термы лежат в TreeMap, поэтому последнее (и любое другое)
+слово запроса ищется как префикс. Задача должна содержать все слова запроса, релевантность считается как
+сумма tf-idf совпавших термов: совпадение в названии весит больше, чем в описании, точное - больше, чем по префиксу.
+Индекс обновляется после коммита в TaskController и TaskImportController и целиком строится при старте
+приложения (TaskSearchIndexRebuildJob).
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final Map<Long, UserIndex> usersIndexes = new ConcurrentHashMap<>();
+
+    // Задачи, изменённые во время перестроения: перестроение не должно перезаписать их более старой версией
+    private volatile Set<Long> changedDuringRebuild;
+
+    public List<Long> search(Long userId, String query, Long projectId, int limit) {
+
+        List<String> tokens = tokenize(query);
+
+        UserIndex userIndex = usersIndexes.get(userId);
+
+        if (tokens.isEmpty() || userIndex == null) {
+            return List.of();
+        }
+
+        return userIndex.search(tokens, projectId, limit);
+    }
+
+    public void indexAfterCommit(Long userId, Long projectId, TaskEntity task) {
+
+        Long taskId = task.getId();
+        String name = task.getName();
+        String description = task.getDescription();
+
+        afterCommit(() -> index(userId, projectId, taskId, name, description));
+    }
+
+    public void removeAfterCommit(Long userId, Long taskId) {
+
+        afterCommit(() -> remove(userId, taskId));
+    }
+
+    public void removeProjectAfterCommit(Long userId, Long projectId) {
+
+        afterCommit(() -> {
+            UserIndex userIndex = usersIndexes.get(userId);
+
+            if (userIndex != null) {
+                userIndex.removeProject(projectId);
+            }
+        });
+    }
+
+    public void index(Long userId, Long projectId, Long taskId, String name, String description) {
+
+        markChanged(taskId);
+
+        usersIndexes
+                .computeIfAbsent(userId, id -> new UserIndex())
+                .put(taskId, projectId, name, description, null);
+    }
+
+    public void remove(Long userId, Long taskId) {
+
+        markChanged(taskId);
+
+        UserIndex userIndex = usersIndexes.get(userId);
+
+        if (userIndex != null) {
+            userIndex.remove(taskId);
+        }
+    }
+
+    public void startRebuild() {
+
+        changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    }
+
+    public void rebuild(TaskSearchProjection task) {
+
+        Set<Long> changed = changedDuringRebuild;
+
+        usersIndexes
+                .computeIfAbsent(task.getOwnerId(), id -> new UserIndex())
+                .put(task.getId(), task.getProjectId(), task.getName(), task.getDescription(), changed);
+    }
+
+    public void finishRebuild() {
+
+        changedDuringRebuild = null;
+    }
+
+    static List<String> tokenize(String text) {
+
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null) {
+            return tokens;
+        }
+
+        StringBuilder token = new StringBuilder();
+
+        for (int i = 0; i <= text.length(); i++) {
+
+            char symbol = i < text.length() ? text.charAt(i) : ' ';
+
+            if (Character.isLetterOrDigit(symbol)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(symbol);
+                }
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+
+        return tokens;
+    }
+
+    private void markChanged(Long taskId) {
+
+        Set<Long> changed = changedDuringRebuild;
+
+        if (changed != null) {
+            changed.add(taskId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Document(Long projectId, Set<String> terms) {
+    }
+
+    private static class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        // терм -> (id задачи -> вес терма в задаче)
+        private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+        private void put(Long taskId, Long projectId, String name, String description, Set<Long> skipTaskIds) {
+
+            Map<String, Float> weights = new HashMap<>();
+
+            tokenize(name).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+            tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+            lock.writeLock().lock();
+            try {
+                // Проверка под блокировкой: изменение, отмеченное позже, применится уже после этой вставки
+                if (skipTaskIds != null && skipTaskIds.contains(taskId)) {
+                    return;
+                }
+
+                removeLocked(taskId);
+
+                documents.put(taskId, new Document(projectId, Set.copyOf(weights.keySet())));
+
+                weights.forEach((term, weight) ->
+                        postings.computeIfAbsent(term, key -> new HashMap<>()).put(taskId, weight));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void remove(Long taskId) {
+
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeProject(Long projectId) {
+
+            lock.writeLock().lock();
+            try {
+                List<Long> taskIds = documents
+                        .entrySet()
+                        .stream()
+                        .filter(entry -> projectId.equals(entry.getValue().projectId()))
+                        .map(Map.Entry::getKey)
+                        .toList();
+
+                taskIds.forEach(this::removeLocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Long taskId) {
+
+            Document document = documents.remove(taskId);
+
+            if (document == null) {
+                return;
+            }
+
+            for (String term : document.terms()) {
+
+                Map<Long, Float> termPostings = postings.get(term);
+
+                termPostings.remove(taskId);
+
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        private List<Long> search(List<String> tokens, Long projectId, int limit) {
+
+            lock.readLock().lock();
+            try {
+                Map<Long, Float> scores = null;
+
+                for (String token : new HashSet<>(tokens)) {
+
+                    Map<Long, Float> tokenScores = new HashMap<>();
+
+                    for (Map.Entry<String, Map<Long, Float>> posting
+                            : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+
+                        float idf = (float) Math.log(1.0 + (double) documents.size() / posting.getValue().size());
+                        float factor = posting.getKey().equals(token) ? 1.0f : PREFIX_MATCH_FACTOR;
+
+                        posting.getValue().forEach((taskId, weight) ->
+                                tokenScores.merge(taskId, weight * idf * factor, Math::max));
+                    }
+
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        scores.keySet().retainAll(tokenScores.keySet());
+                        scores.replaceAll((taskId, score) -> score + tokenScores.get(taskId));
+                    }
+
+                    if (scores.isEmpty()) {
+                        return List.of();
+                    }
+                }
+
+                return scores
+                        .entrySet()
+                        .stream()
+                        .filter(entry -> projectId == null || projectId.equals(documents.get(entry.getKey()).projectId()))
+                        .sorted(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .limit(limit)
+                        .map(Map.Entry::getKey)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.api.controllers.helpers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/*
+UserIdCache:
+Ограниченный по размеру кэш username -> id с истечением по времени. Нужен для токенов без claim uid,
+чтобы запрос к app_user выполнялся не на каждый вызов API, а раз в auth.user-cache.expire-after-write.
+ */
+@Component
+public class UserIdCache {
+
+    private final Cache<String, Long> userIds;
+
+    public UserIdCache(
+            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+            @Value("${auth.user-cache.expire-after-write:PT10M}") Duration expireAfterWrite
+    ) {
+
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Optional<Long> getUserId(String username, Function<String, Optional<Long>> loader) {
+
+        Long userId = userIds.getIfPresent(username);
+
+        if (userId != null) {
+            return Optional.of(userId);
+        }
+
+        // Загрузка вне Cache.get: вычисление внутри ConcurrentHashMap.compute держит монитор на время запроса
+        // к базе и закрепляет виртуальный поток за несущим. Отсутствующий пользователь не кэшируется.
+        Optional<Long> loadedUserId = loader.apply(username);
+
+        loadedUserId.ifPresent(id -> userIds.put(username, id));
+
+        return loadedUserId;
+    }
+}
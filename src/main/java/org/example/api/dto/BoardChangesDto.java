@@ -0,0 +1,26 @@
+package org.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BoardChangesDto {
+
+    private long version;
+
+    private boolean resyncRequired;
+
+    private ProjectDto project;
+
+    private List<TaskStateDto> taskStates;
+
+    private List<TaskChangeDto> tasks;
+
+    private List<Long> deletedTaskIds;
+}
@@ -0,0 +1,18 @@
+package org.example.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BoardDto {
+
+    @NonNull
+    private ProjectDto project;
+
+    @NonNull
+    private List<TaskStateDto> taskStates;
+}
@@ -0,0 +1,27 @@
+package org.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BoardEventDto {
+
+    @NonNull
+    private BoardEventType type;
+
+    private Long taskStateId;
+
+    private String taskStateName;
+
+    private Long leftTaskStateId;
+
+    private Long rightTaskStateId;
+
+    private Long taskId;
+
+    private TaskDto task;
+}
@@ -0,0 +1,25 @@
+package org.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+public enum BoardEventType {
+
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_MOVED,
+    TASK_DELETED,
+    TASK_STATE_CREATED,
+    TASK_STATE_UPDATED,
+    TASK_STATE_MOVED,
+    TASK_STATE_DELETED,
+
+    /** The client missed events that are no longer buffered and must reload the board. */
+    RESYNC;
+
+    @JsonValue
+    public String getEventName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
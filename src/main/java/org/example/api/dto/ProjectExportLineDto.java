@@ -0,0 +1,40 @@
+package org.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectExportLineDto {
+
+    public static final String PROJECT = "project";
+    public static final String TASK_STATE = "task_state";
+    public static final String TASK = "task";
+
+    @NonNull
+    private String type;
+
+    @NonNull
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private Integer position;
+
+    private Long taskStateId;
+
+    private Long leftTaskStateId;
+
+    private Long rightTaskStateId;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package org.example.api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangeDto {
+
+    @NonNull
+    private Long taskStateId;
+
+    @NonNull
+    private TaskDto task;
+}
@@ -0,0 +1,15 @@
+package org.example.api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportErrorDto {
+
+    private long row;
+
+    @NonNull
+    private String error;
+}
@@ -0,0 +1,19 @@
+package org.example.api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportResultDto {
+
+    private long importedCount;
+
+    private long failedCount;
+
+    @NonNull
+    private List<TaskImportErrorDto> errors;
+}
@@ -0,0 +1,19 @@
+package org.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskImportRowDto {
+
+    @JsonProperty("task_state_id")
+    private Long taskStateId;
+
+    @JsonProperty("task_name")
+    private String taskName;
+
+    private String description;
+}
@@ -0,0 +1,25 @@
+package org.example.api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskSearchResultDto {
+
+    @NonNull
+    private Long id;
+
+    @NonNull
+    private String name;
+
+    @NonNull
+    private String description;
+
+    @NonNull
+    private Long taskStateId;
+
+    @NonNull
+    private Long projectId;
+}
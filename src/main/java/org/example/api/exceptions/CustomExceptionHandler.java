@@ -1,7 +1,10 @@
 package org.example.api.exceptions;
 
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -18,6 +21,34 @@ CustomExceptionHandler:
 @ControllerAdvice
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDto> tooManyRequests(TooManyRequestsException ex) {
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(ex.getRetryAfter().toSeconds(), 1)))
+                .body(ErrorDto.builder()
+                        .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                        .errorDescription(ex.getMessage())
+                        .build());
+    }
+
+    // Все соединения Hikari заняты дольше connection-timeout: в режиме виртуальных потоков пул - это и есть
+    // ограничение параллелизма, поэтому клиенту отвечаем 503, а не 500
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorDto> connectionPoolExhausted(CannotCreateTransactionException ex) {
+
+        log.warn("Could not acquire database connection", ex);
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorDto.builder()
+                        .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                        .errorDescription("Database is busy, try again later.")
+                        .build());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> exception(Exception ex, WebRequest request) throws Exception {
 
@@ -1,6 +1,7 @@
 package org.example.api.mappers;
 
 import org.example.api.dto.TaskDto;
+import org.example.api.dto.TaskSearchResultDto;
 import org.example.store.entities.TaskEntity;
 import org.springframework.stereotype.Component;
 
@@ -16,4 +17,24 @@ public class TaskDtoMapper {
                 .position(taskEntity.getPosition())
                 .build();
     }
-}
\ No newline at end of file
+
+    public TaskDto createTaskDto(TaskEntity taskEntity, int position) {
+
+        TaskDto taskDto = createTaskDto(taskEntity);
+
+        taskDto.setPosition(position);
+
+        return taskDto;
+    }
+
+    public TaskSearchResultDto createTaskSearchResultDto(TaskEntity taskEntity) {
+
+        return TaskSearchResultDto.builder()
+                .id(taskEntity.getId())
+                .name(taskEntity.getName())
+                .description(taskEntity.getDescription())
+                .taskStateId(taskEntity.getTaskState().getId())
+                .projectId(taskEntity.getTaskState().getProject().getId())
+                .build();
+    }
+}
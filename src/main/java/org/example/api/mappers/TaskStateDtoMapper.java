@@ -1,17 +1,24 @@
 package org.example.api.mappers;
 
 import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.dto.TaskDto;
 import org.example.api.dto.TaskStateDto;
+import org.example.store.entities.TaskEntity;
 import org.example.store.entities.TaskStateEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @RequiredArgsConstructor
 @Component
 public class TaskStateDtoMapper {
 
     private final TaskDtoMapper taskDtoMapper;
+    private final TaskRankHelper taskRankHelper;
 
     public TaskStateDto createTaskStateDto(TaskStateEntity entity) {
 
@@ -20,13 +27,37 @@ public class TaskStateDtoMapper {
                 .name(entity.getName())
                 .leftTaskStateId(entity.getLeftTaskState().map(TaskStateEntity::getId).orElse(null))
                 .rightTaskStateId(entity.getRightTaskState().map(TaskStateEntity::getId).orElse(null))
-                .tasks(
-                        entity
-                                .getTasks()
-                                .stream()
-                                .map(taskDtoMapper::createTaskDto)
-                                .collect(Collectors.toList())
-                )
+                .tasks(createTaskDtos(entity.getTasks()))
                 .build();
     }
+
+    public TaskStateDto createTaskStateDtoWithoutTasks(TaskStateEntity entity) {
+
+        return TaskStateDto.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .leftTaskStateId(entity.getLeftTaskState().map(TaskStateEntity::getId).orElse(null))
+                .rightTaskStateId(entity.getRightTaskState().map(TaskStateEntity::getId).orElse(null))
+                .tasks(List.of())
+                .build();
+    }
+
+    private List<TaskDto> createTaskDtos(List<TaskEntity> tasks) {
+
+        if (taskRankHelper.isRankMode()) {
+
+            List<TaskEntity> rankedTasks = taskRankHelper.sortByRankKey(tasks);
+
+            return IntStream
+                    .range(0, rankedTasks.size())
+                    .mapToObj(position -> taskDtoMapper.createTaskDto(rankedTasks.get(position), position))
+                    .collect(Collectors.toList());
+        }
+
+        return tasks
+                .stream()
+                .sorted(Comparator.comparingInt(TaskEntity::getPosition))
+                .map(taskDtoMapper::createTaskDto)
+                .collect(Collectors.toList());
+    }
 }
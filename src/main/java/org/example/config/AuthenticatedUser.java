@@ -0,0 +1,27 @@
+package org.example.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.security.Principal;
+
+/*
+AuthenticatedUser:
+Principal, который JwtRequestFilter кладёт в SecurityContext. Содержит id пользователя из токена,
+чтобы проверки владельца не требовали запроса к app_user. У старых токенов id может отсутствовать.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AuthenticatedUser implements Principal {
+
+    private final Long id;
+
+    private final String username;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
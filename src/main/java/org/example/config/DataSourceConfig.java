@@ -0,0 +1,62 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/*
+DataSourceConfig:
+Основной пул строится из spring.datasource, пул реплики - из datasource.replica (только если задан jdbc-url).
+Приложение работает через LazyConnectionDataSourceProxy над ReadReplicaRoutingDataSource: методы
+с @Transactional(readOnly = true) читают из реплики, остальные транзакции идут в основную базу.
+Реплика может отставать, поэтому сразу после записи чтение может вернуть предыдущее состояние.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+
+        return properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    @ConditionalOnExpression("!'${datasource.replica.jdbc-url:}'.isBlank()")
+    public HikariDataSource replicaDataSource() {
+
+        HikariDataSource replicaDataSource = new HikariDataSource();
+        replicaDataSource.setPoolName("replica");
+        replicaDataSource.setReadOnly(true);
+
+        return replicaDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+            @Value("${datasource.replica.retry-after:PT30S}") Duration retryAfter
+    ) {
+
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource.getIfAvailable(), retryAfter)
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.config;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -32,25 +33,27 @@ public class JwtRequestFilter  extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         String jwtToken = null;
-        String username = null;
+        AuthenticatedUser authenticatedUser = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
 
             jwtToken = authHeader.substring(7);
 
             try {
-                username = jwtUtil.validateTokenAndGetUsername(jwtToken);
+                authenticatedUser = jwtUtil.validateTokenAndGetUser(jwtToken);
             } catch (ExpiredJwtException e) {
                 log.debug("Token is expired");
             } catch (SignatureException e) {
                 log.debug("Invalid JWT signature");
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Invalid JWT token");
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (authenticatedUser != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                    username,
+                    authenticatedUser,
                     null,
                     null
             );
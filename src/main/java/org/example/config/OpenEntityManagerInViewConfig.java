@@ -0,0 +1,32 @@
+package org.example.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.AuthController;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/*
+OpenEntityManagerInViewConfig:
+Заменяет стандартный open-in-view (spring.jpa.open-in-view выключен): EntityManager запроса держит соединение
+до конца запроса, а эндпоинты AuthController ждут BCrypt и должны отпускать соединение между короткими
+транзакциями. Для остальных эндпоинтов поведение прежнее.
+ */
+@RequiredArgsConstructor
+@Configuration
+public class OpenEntityManagerInViewConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+
+        registry.addWebRequestInterceptor(interceptor)
+                .excludePathPatterns(AuthController.REGISTER, AuthController.LOGIN);
+    }
+}
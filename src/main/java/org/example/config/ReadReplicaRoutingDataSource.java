@@ -0,0 +1,80 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/*
+ReadReplicaRoutingDataSource:
+Соединения для read-only транзакций берутся из реплики, все остальные - из основной базы.
+Флаг read-only выставляется Spring уже после начала транзакции, поэтому этот источник оборачивается
+в LazyConnectionDataSourceProxy (см. DataSourceConfig), который берёт физическое соединение при первом запросе.
+Если реплика не настроена или недоступна, чтение идёт в основную базу; после ошибки реплика
+не запрашивается в течение datasource.replica.retry-after.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primaryDataSource;
+
+    private final DataSource replicaDataSource;
+
+    private final Duration retryAfter;
+
+    private volatile long replicaUnavailableUntil;
+
+    public ReadReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource, Duration retryAfter) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        if (!useReplica()) {
+            return primaryDataSource.getConnection();
+        }
+
+        try {
+            return replicaDataSource.getConnection();
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+            return primaryDataSource.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        if (!useReplica()) {
+            return primaryDataSource.getConnection(username, password);
+        }
+
+        try {
+            return replicaDataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            markReplicaUnavailable(e);
+            return primaryDataSource.getConnection(username, password);
+        }
+    }
+
+    private boolean useReplica() {
+
+        return replicaDataSource != null
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && System.nanoTime() - replicaUnavailableUntil >= 0;
+    }
+
+    private void markReplicaUnavailable(SQLException e) {
+
+        replicaUnavailableUntil = System.nanoTime() + retryAfter.toNanos();
+
+        log.warn("Read replica is unavailable, routing reads to primary for {}", retryAfter, e);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/*
+RequestSqlStatistics:
+Счётчики одного HTTP-запроса: число подготовленных SQL-запросов, число загруженных сущностей
+и сколько раз выполнялся каждый запрос. Списки параметров IN (?, ?, ?) сворачиваются в IN (?),
+чтобы один и тот же запрос с разным числом id считался одной формой.
+ */
+public class RequestSqlStatistics {
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+
+    private int statements;
+
+    private int entityLoads;
+
+    private final Map<String, Integer> statementShapes = new HashMap<>();
+
+    void onStatement(String sql) {
+
+        statements++;
+        statementShapes.merge(PARAMETER_LIST.matcher(sql).replaceAll("(?)"), 1, Integer::sum);
+    }
+
+    void onEntityLoad() {
+
+        entityLoads++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    // Формы запросов, выполненные не меньше minExecutions раз, самые частые первыми
+    public List<Map.Entry<String, Integer>> getRepeatedShapes(int minExecutions) {
+
+        return statementShapes
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() >= minExecutions)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .toList();
+    }
+}
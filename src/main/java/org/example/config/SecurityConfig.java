@@ -1,6 +1,8 @@
 package org.example.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,6 +34,10 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(requests -> requests
                         .requestMatchers("/auth/register", "/auth/login").permitAll()
+                        // Actuator слушает отдельный порт management.server.port, закрытый от внешней сети
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Повторная ASYNC-диспетчеризация завершает уже авторизованный поток SSE, JWT в ней не проверяется
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
@@ -40,9 +46,9 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength) {
 
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
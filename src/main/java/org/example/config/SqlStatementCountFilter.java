@@ -0,0 +1,77 @@
+package org.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/*
+SqlStatementCountFilter:
+Считает SQL-запросы и загрузки сущностей на каждый HTTP-запрос. Если запросов больше
+sql.statement-counter.warn-threshold или одна и та же форма запроса повторилась не меньше
+sql.statement-counter.repeated-threshold раз (признак N+1), пишет предупреждение с эндпоинтом и повторяющимися запросами.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Value("${sql.statement-counter.warn-threshold:20}")
+    private int warnThreshold = 20;
+
+    @Value("${sql.statement-counter.repeated-threshold:5}")
+    private int repeatedThreshold = 5;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        boolean started = sqlStatementCounter.start();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (started) {
+                report(request, sqlStatementCounter.stop());
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestSqlStatistics statistics) {
+
+        List<Map.Entry<String, Integer>> repeatedShapes = statistics.getRepeatedShapes(repeatedThreshold);
+
+        if (statistics.getStatements() <= warnThreshold && repeatedShapes.isEmpty()) {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        log.warn(
+                "{} {} executed {} SQL statements and loaded {} entities, repeated statements: {}",
+                request.getMethod(),
+                pattern != null ? pattern : request.getRequestURI(),
+                statistics.getStatements(),
+                statistics.getEntityLoads(),
+                repeatedShapes
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/*
+SqlStatementCountHeaderAdvice:
+Режим разработки (sql.statement-counter.response-header=true): добавляет в ответ заголовки X-SQL-Statement-Count
+и X-Entity-Load-Count. Тело пишется уже после коммита транзакции контроллера, поэтому запросы коммита учтены.
+Ответы, которые контроллер пишет в поток сам (выгрузка проекта), заголовки не получают.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sql.statement-counter.response-header", havingValue = "true")
+@ControllerAdvice
+public class SqlStatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+
+        RequestSqlStatistics statistics = sqlStatementCounter.current();
+
+        if (statistics != null) {
+            response.getHeaders().set(STATEMENT_COUNT_HEADER, String.valueOf(statistics.getStatements()));
+            response.getHeaders().set(ENTITY_LOAD_COUNT_HEADER, String.valueOf(statistics.getEntityLoads()));
+        }
+
+        return body;
+    }
+}
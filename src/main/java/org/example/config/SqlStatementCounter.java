@@ -0,0 +1,69 @@
+package org.example.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/*
+SqlStatementCounter:
+Подключается к Hibernate как StatementInspector (каждый подготовленный SQL) и Interceptor (каждая загруженная
+сущность, в том числе из второго уровня кэша) и считает их для текущего потока между start() и stop().
+Запрос обрабатывается в одном потоке, поэтому счётчики относятся к одному HTTP-запросу (SqlStatementCountFilter).
+Вложенный start() продолжает уже начатый подсчёт - так тесты могут измерять запрос вместе с фильтром.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, Interceptor {
+
+    private final ThreadLocal<RequestSqlStatistics> currentStatistics = new ThreadLocal<>();
+
+    // Возвращает true, если подсчёт начат этим вызовом и его нужно завершить через stop()
+    public boolean start() {
+
+        if (currentStatistics.get() != null) {
+            return false;
+        }
+
+        currentStatistics.set(new RequestSqlStatistics());
+
+        return true;
+    }
+
+    public RequestSqlStatistics current() {
+
+        return currentStatistics.get();
+    }
+
+    public RequestSqlStatistics stop() {
+
+        RequestSqlStatistics statistics = currentStatistics.get();
+
+        currentStatistics.remove();
+
+        return statistics;
+    }
+
+    @Override
+    public String inspect(String sql) {
+
+        RequestSqlStatistics statistics = currentStatistics.get();
+
+        if (statistics != null) {
+            statistics.onStatement(sql);
+        }
+
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+
+        RequestSqlStatistics statistics = currentStatistics.get();
+
+        if (statistics != null) {
+            statistics.onEntityLoad();
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.store.repositories.BoardChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+BoardChangeCompactionJob:
+Сжимает журнал board_change: удаляет записи старше boards.changes.retention и записи, которые отстают от текущей
+версии проекта больше чем на boards.changes.max-changes. Клиенту, которому понадобились бы удалённые записи,
+BoardChangeController отвечает resyncRequired.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class BoardChangeCompactionJob {
+
+    private final BoardChangeRepository boardChangeRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${boards.changes.retention:P7D}")
+    private Duration retention;
+
+    @Value("${boards.changes.max-changes:500}")
+    private int maxChanges;
+
+    @Scheduled(fixedDelayString = "${boards.changes.compaction-interval:PT1H}")
+    public void compact() {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Integer expired = transactionTemplate.execute(status ->
+                boardChangeRepository.deleteAllCreatedBefore(Instant.now().minus(retention)));
+
+        Integer superseded = transactionTemplate.execute(status ->
+                boardChangeRepository.deleteAllOlderThanLastChanges(maxChanges));
+
+        log.info("Compacted board change log: {} expired and {} superseded changes deleted", expired, superseded);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+BoardEventHeartbeatJob:
+Отправляет комментарий-heartbeat во все открытые потоки событий доски, чтобы прокси не закрывали простаивающие
+соединения, а отключившиеся клиенты обнаруживались при записи. Заодно удаляет каналы проектов без подписчиков.
+ */
+@RequiredArgsConstructor
+@Component
+public class BoardEventHeartbeatJob {
+
+    private final BoardEventHub boardEventHub;
+
+    @Scheduled(fixedDelayString = "${boards.events.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+
+        boardEventHub.sendHeartbeats();
+        boardEventHub.pruneIdleChannels();
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.jobs;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+CacheStatisticsJob:
+Периодически пишет в лог попадания, промахи и записи по каждому региону второго уровня кэша.
+Работает только при включённом hibernate.generate_statistics.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CacheStatisticsJob {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Scheduled(fixedDelayString = "${cache.statistics.log-interval:PT5M}")
+    public void logStatistics() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+
+            log.info(
+                    "Second-level cache region {}: hits={}, misses={}, puts={}, elements={}",
+                    regionName,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    region.getElementCountInMemory()
+            );
+        }
+    }
+}
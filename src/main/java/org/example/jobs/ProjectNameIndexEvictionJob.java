@@ -0,0 +1,23 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import org.example.api.controllers.helpers.ProjectNameIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ProjectNameIndexEvictionJob:
+Периодически удаляет из ProjectNameIndex пользователей, которые давно не искали проекты по префиксу.
+ */
+@RequiredArgsConstructor
+@Component
+public class ProjectNameIndexEvictionJob {
+
+    private final ProjectNameIndex projectNameIndex;
+
+    @Scheduled(fixedDelayString = "${projects.name-index.eviction-interval:PT1M}")
+    public void evictIdleUsers() {
+
+        projectNameIndex.evictIdleUsers();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.store.entities.TaskEntity;
+import org.example.store.repositories.TaskRepository;
+import org.example.utils.RankKeyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+TaskRankRebalanceJob:
+В режиме сортировки по rank key ключи удлиняются, если много раз вставлять задачи в одно и то же место.
+Джоба находит колонки с слишком длинными (или ещё не проставленными) ключами и заново раскладывает
+их ключи равномерно. Каждая колонка перебалансируется в отдельной транзакции.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskRankRebalanceJob {
+
+    private final TaskRepository taskRepository;
+    private final TaskRankHelper taskRankHelper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${tasks.ordering.rank.max-length:16}")
+    private int maxRankKeyLength;
+
+    @Scheduled(fixedDelayString = "${tasks.ordering.rank.rebalance-interval:PT5M}")
+    public void rebalance() {
+
+        if (!taskRankHelper.isRankMode()) {
+            return;
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<Long> taskStateIds = transactionTemplate.execute(status ->
+                taskRepository.findTaskStateIdsWithRankKeysLongerThan(maxRankKeyLength));
+
+        if (taskStateIds == null) {
+            return;
+        }
+
+        for (Long taskStateId : taskStateIds) {
+            transactionTemplate.executeWithoutResult(status -> rebalanceTaskState(taskStateId));
+        }
+    }
+
+    private void rebalanceTaskState(Long taskStateId) {
+
+        List<TaskEntity> tasks = taskRepository.findAllByTaskStateIdForRebalance(taskStateId);
+
+        List<String> rankKeys = RankKeyUtil.spread(tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setRankKey(rankKeys.get(i));
+            tasks.get(i).setPosition(i);
+        }
+
+        taskRepository.saveAll(tasks);
+
+        log.info("Rebalanced rank keys of {} tasks in task state {}", tasks.size(), taskStateId);
+    }
+}
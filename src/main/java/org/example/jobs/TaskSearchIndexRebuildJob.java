@@ -0,0 +1,56 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskSearchProjection;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/*
+TaskSearchIndexRebuildJob:
+При старте приложения заполняет TaskSearchIndex всеми задачами из базы. Задачи читаются серверным курсором
+без загрузки сущностей, изменения, пришедшие во время перестроения, не перезаписываются.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskSearchIndexRebuildJob implements ApplicationRunner {
+
+    private final TaskRepository taskRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        AtomicLong indexedCount = new AtomicLong();
+
+        taskSearchIndex.startRebuild();
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TaskSearchProjection> tasks = taskRepository.streamAllForSearchIndex()) {
+                    tasks.forEach(task -> {
+                        taskSearchIndex.rebuild(task);
+                        indexedCount.incrementAndGet();
+                    });
+                }
+            });
+        } finally {
+            taskSearchIndex.finishRebuild();
+        }
+
+        log.info("Task search index built from {} tasks", indexedCount.get());
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.api.controllers.helpers.BoardVersionHelper;
+import org.example.store.entities.BoardChangeType;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.repositories.TaskStateRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+TaskStateOrdinalBackfillJob:
+Колонки, созданные до появления ordinal, получают одинаковое значение 0. При старте приложения
+находим такие проекты, проходим цепочку leftTaskState/rightTaskState и проставляем ordinal по порядку.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskStateOrdinalBackfillJob implements ApplicationRunner {
+
+    private final TaskStateRepository taskStateRepository;
+    private final BoardVersionHelper boardVersionHelper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<Long> projectIds = transactionTemplate.execute(status ->
+                taskStateRepository.findProjectIdsWithInconsistentOrdinals());
+
+        if (projectIds == null) {
+            return;
+        }
+
+        for (Long projectId : projectIds) {
+            transactionTemplate.executeWithoutResult(status -> backfillProject(projectId));
+        }
+    }
+
+    private void backfillProject(Long projectId) {
+
+        List<TaskStateEntity> taskStates = orderByChain(taskStateRepository.findAllByProjectIdOrderByOrdinalAscIdAsc(projectId));
+
+        for (int i = 0; i < taskStates.size(); i++) {
+            taskStates.get(i).setOrdinal(i);
+        }
+
+        taskStateRepository.saveAll(taskStates);
+
+        boardVersionHelper.recordChange(projectId, BoardChangeType.TASK_STATES_CHANGED);
+
+        log.info("Backfilled ordinals of {} task states in project {}", taskStates.size(), projectId);
+    }
+
+    private List<TaskStateEntity> orderByChain(List<TaskStateEntity> taskStates) {
+
+        Map<Long, TaskStateEntity> remaining = new LinkedHashMap<>();
+        taskStates.forEach(taskState -> remaining.put(taskState.getId(), taskState));
+
+        List<TaskStateEntity> ordered = new ArrayList<>(taskStates.size());
+
+        Optional<TaskStateEntity> current = taskStates
+                .stream()
+                .filter(taskState -> taskState.getLeftTaskState().isEmpty())
+                .findFirst();
+
+        while (current.isPresent() && remaining.remove(current.get().getId()) != null) {
+
+            ordered.add(current.get());
+
+            current = current.get().getRightTaskState();
+        }
+
+        // Оставшиеся колонки (при разорванной цепочке) не теряем, а добавляем в конец
+        ordered.addAll(remaining.values());
+
+        return ordered;
+    }
+}
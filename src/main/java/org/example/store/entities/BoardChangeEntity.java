@@ -0,0 +1,43 @@
+package org.example.store.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "board_change",
+        indexes = {
+                @Index(name = "board_change_project_id_version_idx", columnList = "project_id, version", unique = true),
+                @Index(name = "board_change_created_at_idx", columnList = "created_at")
+        }
+)
+public class BoardChangeEntity {
+
+    // Строки вставляются одним insert ... select из project_version, поэтому id выдаёт сама база
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private BoardChangeType type;
+
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
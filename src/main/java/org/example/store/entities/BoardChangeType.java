@@ -0,0 +1,17 @@
+package org.example.store.entities;
+
+public enum BoardChangeType {
+
+    /** A task was created, edited or moved; the client re-reads it by task id. */
+    TASK_UPSERTED,
+
+    TASK_DELETED,
+
+    /** Any change to the columns of the board; the client re-reads the ordered column list. */
+    TASK_STATES_CHANGED,
+
+    PROJECT_UPDATED,
+
+    /** A bulk change that is cheaper to reload than to replay, e.g. a CSV import chunk. */
+    RESYNC
+}
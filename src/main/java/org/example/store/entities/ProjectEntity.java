@@ -2,6 +2,8 @@ package org.example.store.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -13,7 +15,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "project")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
+@Table(
+        name = "project",
+        indexes = @Index(name = "project_app_user_id_id_idx", columnList = "app_user_id, id")
+)
 public class ProjectEntity {
 
     @Id
@@ -29,10 +36,11 @@ public class ProjectEntity {
     @Builder.Default
     private Instant updatedAt = Instant.now();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project.taskStates")
     @OneToMany
     @JoinColumn(name = "project_id", referencedColumnName = "id")
     private List<TaskStateEntity> taskStates = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private UserEntity appUser;
 }
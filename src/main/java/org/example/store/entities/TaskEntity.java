@@ -9,7 +9,18 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "task")
+@NamedEntityGraph(
+        name = "TaskEntity.withProject",
+        attributeNodes = @NamedAttributeNode(value = "taskState", subgraph = "taskState"),
+        subgraphs = @NamedSubgraph(name = "taskState", attributeNodes = @NamedAttributeNode("project"))
+)
+@Table(
+        name = "task",
+        indexes = {
+                @Index(name = "task_task_state_id_position_idx", columnList = "task_state_id, position"),
+                @Index(name = "task_task_state_id_rank_key_idx", columnList = "task_state_id, rank_key")
+        }
+)
 public class TaskEntity {
 
     @Id
@@ -22,6 +33,9 @@ public class TaskEntity {
 
     private int position;
 
-    @ManyToOne
+    @Column(name = "rank_key")
+    private String rankKey;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     private TaskStateEntity taskState;
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.example.store.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +15,13 @@ import java.util.Optional;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "task_state")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task_state")
+@NamedEntityGraph(name = "TaskStateEntity.withTasks", attributeNodes = @NamedAttributeNode("tasks"))
+@Table(
+        name = "task_state",
+        indexes = @Index(name = "task_state_project_id_ordinal_idx", columnList = "project_id, ordinal")
+)
 public class TaskStateEntity {
 
     @Id
@@ -22,13 +30,16 @@ public class TaskStateEntity {
 
     private String name;
 
-    @OneToOne
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int ordinal;
+
+    @OneToOne(fetch = FetchType.LAZY)
     private TaskStateEntity leftTaskState;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private TaskStateEntity rightTaskState;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private ProjectEntity project;
 
     @OneToMany
@@ -2,6 +2,8 @@ package org.example.store.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +14,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app_user")
 @Table(name = "app_user")
 public class UserEntity {
 
@@ -24,6 +28,7 @@ public class UserEntity {
 
     private String password;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app_user.projects")
     @OneToMany()
     @JoinColumn(name = "app_user_id", referencedColumnName = "id")
     private List<ProjectEntity> projects = new ArrayList<>();
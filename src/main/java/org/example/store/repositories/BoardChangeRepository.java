@@ -0,0 +1,58 @@
+package org.example.store.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.example.store.entities.BoardChangeEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface BoardChangeRepository extends JpaRepository<BoardChangeEntity, Long> {
+
+    // Без явной query space Hibernate сбрасывал бы после нативного insert весь кэш второго уровня
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "board_change"))
+    @Query(value = "insert into board_change (project_id, version, type, task_id, created_at) " +
+            "select v.project_id, v.version, :type, cast(null as bigint), current_timestamp " +
+            "from project_version v where v.project_id = :projectId",
+            nativeQuery = true)
+    int insertForCurrentVersion(@Param("projectId") Long projectId, @Param("type") String type);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "board_change"))
+    @Query(value = "insert into board_change (project_id, version, type, task_id, created_at) " +
+            "select v.project_id, v.version, :type, :taskId, current_timestamp " +
+            "from project_version v where v.project_id = :projectId",
+            nativeQuery = true)
+    int insertForCurrentVersion(
+            @Param("projectId") Long projectId,
+            @Param("type") String type,
+            @Param("taskId") Long taskId
+    );
+
+    List<BoardChangeEntity> findAllByProjectIdAndVersionBetweenOrderByVersionAsc(
+            Long projectId,
+            long fromVersion,
+            long toVersion
+    );
+
+    @Modifying
+    @Query("delete from BoardChangeEntity c where c.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("delete from BoardChangeEntity c where c.createdAt < :threshold")
+    int deleteAllCreatedBefore(@Param("threshold") Instant threshold);
+
+    // Клиенту, отставшему больше чем на maxChanges версий, всё равно отвечают resync, эти записи не нужны
+    @Modifying
+    @Query("delete from BoardChangeEntity c " +
+            "where c.version + :maxChanges <= " +
+            "(select v.version from ProjectVersionEntity v where v.projectId = c.projectId)")
+    int deleteAllOlderThanLastChanges(@Param("maxChanges") long maxChanges);
+}
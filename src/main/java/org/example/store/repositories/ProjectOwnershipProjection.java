@@ -0,0 +1,8 @@
+package org.example.store.repositories;
+
+public interface ProjectOwnershipProjection {
+
+    Long getProjectId();
+
+    Long getOwnerId();
+}
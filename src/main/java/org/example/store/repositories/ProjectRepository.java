@@ -2,8 +2,12 @@ package org.example.store.repositories;
 
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -20,4 +24,25 @@ import java.util.stream.Stream;
         Stream<ProjectEntity> streamAllByAppUser(UserEntity appUser);
 
         Optional<ProjectEntity> findByNameAndAppUser(String name, UserEntity appUser);
+
+        @Query("select p.appUser.id from ProjectEntity p where p.id = :projectId")
+        Optional<Long> findOwnerIdById(@Param("projectId") Long projectId);
+
+        @Query("select p.appUser.id as ownerId, coalesce(v.version, 0L) as version " +
+                "from ProjectEntity p left join ProjectVersionEntity v on v.projectId = p.id " +
+                "where p.id = :projectId")
+        Optional<ProjectVersionProjection> findOwnerIdAndVersionById(@Param("projectId") Long projectId);
+
+        List<ProjectEntity> findAllByAppUserAndIdGreaterThanOrderByIdAsc(
+                UserEntity appUser,
+                Long afterId,
+                Pageable pageable
+        );
+
+        List<ProjectEntity> findAllByAppUserAndNameStartsWithIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                UserEntity appUser,
+                String prefixName,
+                Long afterId,
+                Pageable pageable
+        );
     }
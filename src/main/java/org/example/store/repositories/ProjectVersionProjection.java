@@ -0,0 +1,8 @@
+package org.example.store.repositories;
+
+public interface ProjectVersionProjection {
+
+    Long getOwnerId();
+
+    Long getVersion();
+}
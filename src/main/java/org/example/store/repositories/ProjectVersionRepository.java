@@ -0,0 +1,25 @@
+package org.example.store.repositories;
+
+import org.example.store.entities.ProjectVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProjectVersionRepository extends JpaRepository<ProjectVersionEntity, Long> {
+
+    @Modifying
+    @Query("update ProjectVersionEntity v set v.version = v.version + 1 where v.projectId = :projectId")
+    int incrementVersion(@Param("projectId") Long projectId);
+
+    // Параллельная вставка той же строки не падает на первичном ключе, а ждёт её коммита и ничего не делает
+    @Modifying
+    @Query(value = "insert into project_version (project_id, version) values (:projectId, 0) " +
+            "on conflict do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("delete from ProjectVersionEntity v where v.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
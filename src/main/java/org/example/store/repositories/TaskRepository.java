@@ -1,8 +1,126 @@
 package org.example.store.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.store.entities.TaskEntity;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
 
+    @Query("select p.id as projectId, p.appUser.id as ownerId " +
+            "from TaskEntity t join t.taskState ts join ts.project p " +
+            "where t.id = :taskId")
+    Optional<ProjectOwnershipProjection> findOwnershipById(@Param("taskId") Long taskId);
+
+    List<TaskEntity> findAllByTaskStateIdOrderByPositionAsc(Long taskStateId);
+
+    long countByTaskStateId(Long taskStateId);
+
+    List<TaskEntity> findAllByTaskStateIdAndPositionGreaterThanOrderByPositionAsc(
+            Long taskStateId,
+            int afterPosition,
+            Pageable pageable
+    );
+
+    List<TaskEntity> findAllByTaskStateIdAndRankKeyGreaterThanOrderByRankKeyAsc(
+            Long taskStateId,
+            String afterRankKey,
+            Pageable pageable
+    );
+
+    long countByTaskStateIdAndRankKeyLessThan(Long taskStateId, String rankKey);
+
+    // Задачи без rank key (до перебалансировки) идут после всех остальных в порядке position, id
+    @Query("select t from TaskEntity t " +
+            "where t.taskState.id = :taskStateId and t.rankKey is null " +
+            "and (t.position > :afterPosition or (t.position = :afterPosition and t.id > :afterId)) " +
+            "order by t.position, t.id")
+    List<TaskEntity> findAllUnrankedByTaskStateIdAfter(
+            @Param("taskStateId") Long taskStateId,
+            @Param("afterPosition") int afterPosition,
+            @Param("afterId") long afterId,
+            Pageable pageable
+    );
+
+    @Query("select count(t) from TaskEntity t " +
+            "where t.taskState.id = :taskStateId and (t.rankKey is not null " +
+            "or t.position < :position or (t.position = :position and t.id < :id))")
+    long countByTaskStateIdBeforeUnranked(
+            @Param("taskStateId") Long taskStateId,
+            @Param("position") int position,
+            @Param("id") Long id
+    );
+
+    Optional<TaskEntity> findFirstByTaskStateIdAndRankKeyNotNullOrderByRankKeyDesc(Long taskStateId);
+
+    @Query(value = "select t.rank_key from task t " +
+            "where t.task_state_id = :taskStateId and t.id <> :taskId " +
+            "order by t.rank_key " +
+            "limit 2 offset :offset",
+            nativeQuery = true)
+    List<String> findRankKeysAround(
+            @Param("taskStateId") Long taskStateId,
+            @Param("taskId") Long taskId,
+            @Param("offset") int offset
+    );
+
+    @Query("select distinct t.taskState.id from TaskEntity t " +
+            "where t.rankKey is null or length(t.rankKey) > :maxLength")
+    List<Long> findTaskStateIdsWithRankKeysLongerThan(@Param("maxLength") int maxLength);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from TaskEntity t join t.taskState ts " +
+            "where ts.project.id = :projectId " +
+            "order by ts.ordinal, ts.id, t.position")
+    Stream<TaskEntity> streamAllByProjectIdOrderByPosition(@Param("projectId") Long projectId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from TaskEntity t join t.taskState ts " +
+            "where ts.project.id = :projectId " +
+            "order by ts.ordinal, ts.id, t.rankKey, t.position")
+    Stream<TaskEntity> streamAllByProjectIdOrderByRankKey(@Param("projectId") Long projectId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t.id as id, t.name as name, t.description as description, " +
+            "p.id as projectId, p.appUser.id as ownerId " +
+            "from TaskEntity t join t.taskState ts join ts.project p")
+    Stream<TaskSearchProjection> streamAllForSearchIndex();
+
+    @EntityGraph("TaskEntity.withProject")
+    List<TaskEntity> findAllWithProjectByIdIn(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TaskEntity t where t.taskState.id = :taskStateId order by t.rankKey, t.position")
+    List<TaskEntity> findAllByTaskStateIdForRebalance(@Param("taskStateId") Long taskStateId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TaskEntity t set t.position = t.position - 1 " +
+            "where t.taskState.id = :taskStateId and t.position > :fromPosition and t.position <= :toPosition")
+    int shiftPositionsLeft(
+            @Param("taskStateId") Long taskStateId,
+            @Param("fromPosition") int fromPosition,
+            @Param("toPosition") int toPosition
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TaskEntity t set t.position = t.position + 1 " +
+            "where t.taskState.id = :taskStateId and t.position >= :fromPosition and t.position < :toPosition")
+    int shiftPositionsRight(
+            @Param("taskStateId") Long taskStateId,
+            @Param("fromPosition") int fromPosition,
+            @Param("toPosition") int toPosition
+    );
 }
@@ -0,0 +1,14 @@
+package org.example.store.repositories;
+
+public interface TaskSearchProjection {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Long getProjectId();
+
+    Long getOwnerId();
+}
@@ -1,11 +1,55 @@
 package org.example.store.repositories;
 
 import org.example.store.entities.TaskStateEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface TaskStateRepository extends JpaRepository<TaskStateEntity, Long> {
 
     Optional<TaskStateEntity> findTaskStateEntityByProjectIdAndNameContainsIgnoreCase(Long projectId, String taskStateName);
+
+    boolean existsByProjectIdAndNameIgnoreCase(Long projectId, String taskStateName);
+
+    List<TaskStateEntity> findAllByProjectIdOrderByOrdinalAscIdAsc(Long projectId);
+
+    Optional<TaskStateEntity> findFirstByProjectIdOrderByOrdinalAsc(Long projectId);
+
+    Optional<TaskStateEntity> findFirstByProjectIdOrderByOrdinalDesc(Long projectId);
+
+    @EntityGraph("TaskStateEntity.withTasks")
+    List<TaskStateEntity> findAllWithTasksByProjectIdOrderByOrdinalAsc(Long projectId);
+
+    @Query("select p.id as projectId, p.appUser.id as ownerId " +
+            "from TaskStateEntity ts join ts.project p " +
+            "where ts.id = :taskStateId")
+    Optional<ProjectOwnershipProjection> findOwnershipById(@Param("taskStateId") Long taskStateId);
+
+    @Query("select ts.project.id from TaskStateEntity ts " +
+            "group by ts.project.id " +
+            "having count(distinct ts.ordinal) < count(ts)")
+    List<Long> findProjectIdsWithInconsistentOrdinals();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TaskStateEntity ts set ts.ordinal = ts.ordinal - 1 " +
+            "where ts.project.id = :projectId and ts.ordinal > :fromOrdinal and ts.ordinal <= :toOrdinal")
+    int shiftOrdinalsLeft(
+            @Param("projectId") Long projectId,
+            @Param("fromOrdinal") int fromOrdinal,
+            @Param("toOrdinal") int toOrdinal
+    );
+
+    @Modifying(flushAutomatically = true)
+    @Query("update TaskStateEntity ts set ts.ordinal = ts.ordinal + 1 " +
+            "where ts.project.id = :projectId and ts.ordinal >= :fromOrdinal and ts.ordinal < :toOrdinal")
+    int shiftOrdinalsRight(
+            @Param("projectId") Long projectId,
+            @Param("fromOrdinal") int fromOrdinal,
+            @Param("toOrdinal") int toOrdinal
+    );
 }
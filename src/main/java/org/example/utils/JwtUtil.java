@@ -1,53 +1,169 @@
 package org.example.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.config.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
-
+import java.util.concurrent.TimeUnit;
+
+/*
+JwtUtil:
+Ключ подписи и парсер строятся один раз при создании бина (JwtParser неизменяемый и потокобезопасный).
+Проверенные токены кэшируются по SHA-256 хэшу токена: повторный запрос с тем же токеном не проверяет HMAC
+и не разбирает base64/JSON. Запись живёт не дольше срока действия токена, размер кэша ограничен
+auth.token-cache.max-size. Ошибки разбора (истёкший токен, неверная подпись) пробрасываются в JwtRequestFilter.
+Время проверки пишется в таймер auth.jwt.validation с тегом result: hit, miss или invalid.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String USER_ID_CLAIM = "uid";
+
+    private final Key signingKey;
+
+    private final JwtParser jwtParser;
+
+    private final Duration jwtLifetime;
+
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private final Timer cacheHitTimer;
+
+    private final Timer cacheMissTimer;
+
+    private final Timer invalidTokenTimer;
+
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.lifetime}") Duration jwtLifetime,
+            @Value("${auth.token-cache.max-size:10000}") long tokenCacheMaxSize,
+            MeterRegistry meterRegistry
+    ) {
+
+        // Тот же ключ, который jjwt строил из base64-строки secret при каждом вызове
+        this.signingKey = new SecretKeySpec(Decoders.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtLifetime = jwtLifetime;
 
-    @Value("${jwt.lifetime}")
-    private Duration jwtLifetime;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+
+        this.cacheHitTimer = validationTimer(meterRegistry, "hit");
+        this.cacheMissTimer = validationTimer(meterRegistry, "miss");
+        this.invalidTokenTimer = validationTimer(meterRegistry, "invalid");
+    }
+
+    public String generateToken(String username, Long userId) {
 
-    public String generateToken(String username) {
-        
         return Jwts.builder()
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
                 .setExpiration(new Date(System.currentTimeMillis() + jwtLifetime.toMillis()))
-                .signWith(SignatureAlgorithm.HS256, secret)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String validateTokenAndGetUsername(String token) {
+    public AuthenticatedUser validateTokenAndGetUser(String token) {
+
+        long startedAt = System.nanoTime();
+
+        String tokenHash = hash(token);
+
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+
+        if (verifiedToken != null) {
+            cacheHitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return verifiedToken.user();
+        }
 
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-        } catch (Exception e) {
-            return null; // Токен недействителен
+            verifiedToken = parse(token);
+        } catch (RuntimeException e) {
+            invalidTokenTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
         }
+
+        verifiedTokens.put(tokenHash, verifiedToken);
+
+        cacheMissTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        return verifiedToken.user();
     }
-}
 
+    private VerifiedToken parse(String token) {
+
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        // В токенах, выданных до появления uid, id пользователя нет - его найдёт ControllerHelper
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
 
+        Date expiration = claims.getExpiration();
 
+        return new VerifiedToken(
+                new AuthenticatedUser(userId != null ? userId.longValue() : null, claims.getSubject()),
+                expiration != null ? expiration.getTime() : System.currentTimeMillis() + jwtLifetime.toMillis()
+        );
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+
+        return Timer.builder("auth.jwt.validation")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
+    private static String hash(String token) {
 
+        try {
+            byte[] digest = MessageDigest
+                    .getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
 
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
 
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
 
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
 
+        @Override
+        public long expireAfterCreate(String tokenHash, VerifiedToken token, long currentTime) {
+            long millisLeft = token.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+        }
 
+        @Override
+        public long expireAfterUpdate(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenHash, token, currentTime);
+        }
 
+        @Override
+        public long expireAfterRead(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.utils;
+
+import org.example.api.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/*
+PageCursorUtil:
+Курсоры для keyset-пагинации. Клиент получает курсор следующей страницы в заголовке X-Next-Cursor
+и передаёт его обратно как есть, содержимое курсора (ключ последней строки страницы) для него непрозрачно.
+ */
+public final class PageCursorUtil {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int MAX_LIMIT = 1000;
+
+    private PageCursorUtil() {
+    }
+
+    public static String encode(String key) {
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) {
+
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    public static Optional<Long> decodeLong(Optional<String> cursor) {
+
+        return cursor.map(PageCursorUtil::decode).map(key -> {
+            try {
+                return Long.parseLong(key);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+        });
+    }
+
+    public static int getLimitOrThrowException(Optional<Integer> limit) {
+
+        int pageSize = limit.orElse(MAX_LIMIT);
+
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new BadRequestException(String.format("Limit must be between 1 and %d.", MAX_LIMIT));
+        }
+
+        return pageSize;
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+RankKeyUtil:
+Строковые ключи сортировки задач (в духе LexoRank). Ключи состоят из символов 0-9a-z, сравниваются
+лексикографически и никогда не заканчиваются на '0', поэтому между любыми двумя соседними ключами
+всегда можно вставить ещё один, не трогая остальные строки.
+ */
+public final class RankKeyUtil {
+
+    private static final int RADIX = Character.MAX_RADIX;
+
+    // Ключи добавления в конец растут шагом в последнем из этих разрядов: 36^6 добавлений без удлинения ключа
+    private static final int APPEND_KEY_LENGTH = 6;
+
+    private RankKeyUtil() {
+    }
+
+    /**
+     * Returns a key strictly between {@code left} and {@code right}.
+     * {@code null} means "no neighbour" on that side.
+     */
+    public static String between(String left, String right) {
+
+        if (left != null && right != null && left.compareTo(right) >= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Left rank key \"%s\" must be less than right rank key \"%s\".", left, right)
+            );
+        }
+
+        String lower = left == null ? "" : left;
+        String upper = right;
+
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; ; i++) {
+
+            int lowerDigit = i < lower.length() ? digit(lower.charAt(i)) : 0;
+            int upperDigit = upper == null ? RADIX : i < upper.length() ? digit(upper.charAt(i)) : 0;
+
+            if (upperDigit - lowerDigit > 1) {
+                return result.append(Character.forDigit((lowerDigit + upperDigit) / 2, RADIX)).toString();
+            }
+
+            if (upperDigit < lowerDigit || (upper != null && i >= upper.length())) {
+                throw new IllegalArgumentException(String.format("Rank key \"%s\" can't be an upper bound.", right));
+            }
+
+            result.append(Character.forDigit(lowerDigit, RADIX));
+
+            if (upperDigit > lowerDigit) {
+                // Префикс уже меньше правого ключа, дальше ограничение сверху не действует
+                upper = null;
+            }
+        }
+    }
+
+    /**
+     * Returns a key greater than {@code left} for appending after the last key.
+     * Unlike {@code between(left, null)} the key doesn't grow with every append.
+     */
+    public static String after(String left) {
+
+        if (left == null) {
+            return between(null, null);
+        }
+
+        // Ключ как дробь в системе счисления 36: усекаем до APPEND_KEY_LENGTH разрядов и прибавляем единицу младшего.
+        // Усечённый ключ не больше исходного, а отличается от него меньше чем на эту единицу
+        int[] digits = new int[APPEND_KEY_LENGTH];
+
+        for (int i = 0; i < APPEND_KEY_LENGTH && i < left.length(); i++) {
+            digits[i] = digit(left.charAt(i));
+        }
+
+        int position = APPEND_KEY_LENGTH - 1;
+
+        while (position >= 0 && digits[position] == RADIX - 1) {
+            position--;
+        }
+
+        if (position < 0) {
+            // Все разряды заняты 'z' - остаётся удлинять ключ, TaskRankRebalanceJob его перераскладывает
+            return between(left, null);
+        }
+
+        digits[position]++;
+
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i <= position; i++) {
+            result.append(Character.forDigit(digits[i], RADIX));
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Returns {@code count} ascending keys greater than {@code left}, spread evenly after {@code after(left)}.
+     */
+    public static List<String> spread(String left, int count) {
+
+        if (left == null) {
+            return spread(count);
+        }
+
+        // Все ключи начинаются с after(left), поэтому больше left, а между соседями остаётся место для вставок
+        String prefix = after(left);
+
+        return spread(count)
+                .stream()
+                .map(key -> prefix + key)
+                .toList();
+    }
+
+    /**
+     * Returns {@code count} ascending keys spread evenly over the shortest key length that fits them.
+     */
+    public static List<String> spread(int count) {
+
+        int length = 1;
+        long capacity = RADIX;
+
+        // Оставляем запас, чтобы после перебалансировки между соседями помещались вставки
+        while (capacity <= (long) (count + 1) * RADIX) {
+            length++;
+            capacity *= RADIX;
+        }
+
+        long step = capacity / (count + 1);
+
+        List<String> keys = new ArrayList<>(count);
+
+        for (int i = 1; i <= count; i++) {
+
+            StringBuilder key = new StringBuilder(Long.toString(step * i, RADIX));
+
+            while (key.length() < length) {
+                key.insert(0, '0');
+            }
+
+            while (key.charAt(key.length() - 1) == '0') {
+                key.setLength(key.length() - 1);
+            }
+
+            keys.add(key.toString());
+        }
+
+        return keys;
+    }
+
+    private static int digit(char symbol) {
+
+        int digit = Character.digit(symbol, RADIX);
+
+        if (digit < 0 || Character.isUpperCase(symbol)) {
+            throw new IllegalArgumentException(String.format("Invalid rank key symbol '%s'.", symbol));
+        }
+
+        return digit;
+    }
+}
@@ -0,0 +1,434 @@
+package org.example.perf;
+
+import org.example.utils.RankKeyUtil;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+DatasetGenerator:
+Заполняет базу синтетическими данными в форме продакшена: пользователи, проекты, колонки и задачи пишутся
+пакетными JDBC-вставками напрямую в app_user, project, task_state и task, минуя Hibernate.
+Цепочки leftTaskState/rightTaskState, ordinal, position и rank_key у каждой колонки согласованы.
+Размеры задаются распределениями (см. Distribution), форма данных каждого пользователя определяется только
+dataset.seed и номером пользователя, поэтому повторный запуск с тем же seed даёт те же доски.
+Идентификаторы резервируются за текущими значениями последовательностей Hibernate, после загрузки
+последовательности сдвигаются за последний вставленный id. Схема должна быть уже создана приложением
+(ddl-auto: update), а база - не использоваться приложением во время загрузки.
+Запуск: ./gradlew generateDataset -Pdataset.users=2000 -Pdataset.tasks-per-task-state=lognormal:50:1.5:10000
+ */
+public class DatasetGenerator {
+
+    // allocationSize генераторов id в сущностях
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String USER_SEQUENCE = "user_entity_seq";
+    private static final String PROJECT_SEQUENCE = "project_entity_seq";
+    private static final String TASK_STATE_SEQUENCE = "task_state_entity_seq";
+    private static final String TASK_SEQUENCE = "task_entity_seq";
+
+    private static final String[] TASK_STATE_NAMES = {
+            "Backlog", "To Do", "In Progress", "Review", "Testing", "Blocked", "Ready", "Done"
+    };
+
+    private static final String[] WORDS = {
+            "fix", "add", "update", "remove", "login", "page", "button", "api", "endpoint", "cache", "report",
+            "export", "import", "user", "profile", "search", "filter", "board", "column", "task", "timeout",
+            "error", "crash", "layout", "mobile", "payment", "invoice", "email", "notification", "migration",
+            "index", "query", "slow", "review", "refactor", "test", "deploy", "config", "docs", "release"
+    };
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long seed;
+    private final String prefix;
+    private final int users;
+    private final Distribution projectsPerUser;
+    private final Distribution taskStatesPerProject;
+    private final Distribution tasksPerTaskState;
+    private final int batchSize;
+    private final int threads;
+    private final String passwordHash;
+
+    private final AtomicInteger nextUserIndex = new AtomicInteger();
+    private final AtomicInteger completedUsers = new AtomicInteger();
+
+    private final AtomicLong executedStatements = new AtomicLong();
+    private final AtomicLong insertedProjects = new AtomicLong();
+    private final AtomicLong insertedTaskStates = new AtomicLong();
+    private final AtomicLong insertedTasks = new AtomicLong();
+
+    private AtomicLong nextUserId;
+    private AtomicLong nextProjectId;
+    private AtomicLong nextTaskStateId;
+    private AtomicLong nextTaskId;
+
+    public static void main(String[] args) throws Exception {
+
+        long seed = Long.getLong("dataset.seed", 42L);
+
+        new DatasetGenerator(
+                System.getProperty("dataset.url", "jdbc:postgresql://localhost/super_task_tracker?reWriteBatchedInserts=true"),
+                System.getProperty("dataset.username", "postgres"),
+                System.getProperty("dataset.password", "postgres"),
+                seed,
+                System.getProperty("dataset.prefix", "synthetic-" + seed),
+                Integer.getInteger("dataset.users", 100),
+                Distribution.parse(System.getProperty("dataset.projects-per-user", "uniform:1-50")),
+                Distribution.parse(System.getProperty("dataset.task-states-per-project", "uniform:3-35")),
+                Distribution.parse(System.getProperty("dataset.tasks-per-task-state", "lognormal:20:1.5:10000")),
+                Integer.getInteger("dataset.batch-size", 1000),
+                Integer.getInteger("dataset.threads", 4),
+                System.getProperty("dataset.user-password", "password")
+        ).run();
+    }
+
+    public DatasetGenerator(
+            String url,
+            String username,
+            String password,
+            long seed,
+            String prefix,
+            int users,
+            Distribution projectsPerUser,
+            Distribution taskStatesPerProject,
+            Distribution tasksPerTaskState,
+            int batchSize,
+            int threads,
+            String userPassword
+    ) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.seed = seed;
+        this.prefix = prefix;
+        this.users = users;
+        this.projectsPerUser = projectsPerUser;
+        this.taskStatesPerProject = taskStatesPerProject;
+        this.tasksPerTaskState = tasksPerTaskState;
+        this.batchSize = batchSize;
+        this.threads = threads;
+
+        // Один хеш на всех: BCrypt на каждого пользователя занял бы больше времени, чем сама загрузка
+        this.passwordHash = new BCryptPasswordEncoder().encode(userPassword);
+    }
+
+    public void run() throws Exception {
+
+        try (Connection connection = connect()) {
+            nextUserId = new AtomicLong(reserveIds(connection, USER_SEQUENCE));
+            nextProjectId = new AtomicLong(reserveIds(connection, PROJECT_SEQUENCE));
+            nextTaskStateId = new AtomicLong(reserveIds(connection, TASK_STATE_SEQUENCE));
+            nextTaskId = new AtomicLong(reserveIds(connection, TASK_SEQUENCE));
+        }
+
+        long startedAt = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<Void>> workers = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    writeUsers();
+                    return null;
+                }));
+            }
+
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = connect()) {
+            restoreSequence(connection, USER_SEQUENCE, nextUserId.get());
+            restoreSequence(connection, PROJECT_SEQUENCE, nextProjectId.get());
+            restoreSequence(connection, TASK_STATE_SEQUENCE, nextTaskStateId.get());
+            restoreSequence(connection, TASK_SEQUENCE, nextTaskId.get());
+        }
+
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        System.out.printf(
+                "Generated %d users, %d projects, %d task states and %d tasks (%d statements) in %.1f s, %.0f statements/s%n",
+                users,
+                insertedProjects.get(),
+                insertedTaskStates.get(),
+                insertedTasks.get(),
+                executedStatements.get(),
+                seconds,
+                executedStatements.get() / seconds
+        );
+    }
+
+    private void writeUsers() throws SQLException {
+
+        try (Connection connection = connect(); BatchWriter writer = new BatchWriter(connection)) {
+
+            int userIndex;
+
+            while ((userIndex = nextUserIndex.getAndIncrement()) < users) {
+
+                writeUser(writer, userIndex);
+
+                int completed = completedUsers.incrementAndGet();
+
+                if (completed % Math.max(1, users / 20) == 0) {
+                    System.out.printf("%d/%d users, %d statements%n", completed, users, executedStatements.get());
+                }
+            }
+        }
+    }
+
+    private void writeUser(BatchWriter writer, int userIndex) throws SQLException {
+
+        // Форма данных пользователя зависит только от seed и номера, а не от порядка обработки потоками
+        SplittableRandom random = new SplittableRandom(seed + userIndex);
+
+        long userId = nextUserId.getAndIncrement();
+
+        writer.insertUser(userId, prefix + "-user-" + userIndex);
+
+        int projects = projectsPerUser.sample(random);
+
+        for (int p = 0; p < projects; p++) {
+
+            long projectId = nextProjectId.getAndIncrement();
+
+            writer.insertProject(projectId, prefix + "-project-" + userIndex + "-" + p, userId);
+
+            int taskStates = taskStatesPerProject.sample(random);
+            long firstTaskStateId = nextTaskStateId.getAndAdd(taskStates);
+
+            for (int s = 0; s < taskStates; s++) {
+
+                long taskStateId = firstTaskStateId + s;
+
+                writer.insertTaskState(
+                        taskStateId,
+                        s < TASK_STATE_NAMES.length ? TASK_STATE_NAMES[s] : "Column " + (s + 1),
+                        s,
+                        projectId
+                );
+
+                int tasks = tasksPerTaskState.sample(random);
+                long firstTaskId = nextTaskId.getAndAdd(tasks);
+
+                List<String> rankKeys = RankKeyUtil.spread(tasks);
+
+                for (int t = 0; t < tasks; t++) {
+                    writer.insertTask(
+                            firstTaskId + t,
+                            "Task " + (t + 1) + ": " + words(random, 2, 5),
+                            words(random, 3, 15),
+                            t,
+                            rankKeys.get(t),
+                            taskStateId
+                    );
+                }
+            }
+
+            // Соседей проставляем, когда все колонки проекта уже в пакете: правый сосед вставляется позже левого
+            for (int s = 0; s < taskStates; s++) {
+
+                long taskStateId = firstTaskStateId + s;
+
+                writer.linkTaskState(
+                        taskStateId,
+                        s > 0 ? taskStateId - 1 : null,
+                        s < taskStates - 1 ? taskStateId + 1 : null
+                );
+            }
+        }
+
+        writer.flush();
+    }
+
+    private static String words(SplittableRandom random, int min, int max) {
+
+        int count = random.nextInt(min, max + 1);
+
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+
+            if (i > 0) {
+                text.append(' ');
+            }
+
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+
+        return text.toString();
+    }
+
+    private Connection connect() throws SQLException {
+
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    private static long reserveIds(Connection connection, String sequence) throws SQLException {
+
+        // Hibernate мог уже выдать id вплоть до значения последовательности плюс allocationSize
+        return querySequence(connection, "select nextval('" + sequence + "')") + ALLOCATION_SIZE;
+    }
+
+    private static void restoreSequence(Connection connection, String sequence, long nextId) throws SQLException {
+
+        // Следующий пул Hibernate начнётся за последним вставленным id
+        querySequence(connection, "select setval('" + sequence + "', " + (nextId + ALLOCATION_SIZE) + ")");
+    }
+
+    private static long querySequence(Connection connection, String sql) throws SQLException {
+
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private class BatchWriter implements AutoCloseable {
+
+        private final Connection connection;
+
+        private final PreparedStatement insertUser;
+        private final PreparedStatement insertProject;
+        private final PreparedStatement insertTaskState;
+        private final PreparedStatement linkTaskState;
+        private final PreparedStatement insertTask;
+
+        private final Timestamp now = Timestamp.from(Instant.now());
+
+        private int pending;
+
+        private BatchWriter(Connection connection) throws SQLException {
+
+            this.connection = connection;
+
+            connection.setAutoCommit(false);
+
+            insertUser = connection.prepareStatement(
+                    "insert into app_user (id, username, password) values (?, ?, ?)");
+            insertProject = connection.prepareStatement(
+                    "insert into project (id, name, created_at, updated_at, app_user_id) values (?, ?, ?, ?, ?)");
+            insertTaskState = connection.prepareStatement(
+                    "insert into task_state (id, name, ordinal, project_id) values (?, ?, ?, ?)");
+            linkTaskState = connection.prepareStatement(
+                    "update task_state set left_task_state_id = ?, right_task_state_id = ? where id = ?");
+            insertTask = connection.prepareStatement(
+                    "insert into task (id, name, description, position, rank_key, task_state_id) values (?, ?, ?, ?, ?, ?)");
+        }
+
+        private void insertUser(long id, String name) throws SQLException {
+
+            insertUser.setLong(1, id);
+            insertUser.setString(2, name);
+            insertUser.setString(3, passwordHash);
+            add(insertUser);
+        }
+
+        private void insertProject(long id, String name, long userId) throws SQLException {
+
+            insertProject.setLong(1, id);
+            insertProject.setString(2, name);
+            insertProject.setTimestamp(3, now);
+            insertProject.setTimestamp(4, now);
+            insertProject.setLong(5, userId);
+            add(insertProject);
+
+            insertedProjects.incrementAndGet();
+        }
+
+        private void insertTaskState(long id, String name, int ordinal, long projectId) throws SQLException {
+
+            insertTaskState.setLong(1, id);
+            insertTaskState.setString(2, name);
+            insertTaskState.setInt(3, ordinal);
+            insertTaskState.setLong(4, projectId);
+            add(insertTaskState);
+
+            insertedTaskStates.incrementAndGet();
+        }
+
+        private void linkTaskState(long id, Long leftId, Long rightId) throws SQLException {
+
+            linkTaskState.setObject(1, leftId, Types.BIGINT);
+            linkTaskState.setObject(2, rightId, Types.BIGINT);
+            linkTaskState.setLong(3, id);
+            add(linkTaskState);
+        }
+
+        private void insertTask(long id, String name, String description, int position, String rankKey, long taskStateId)
+                throws SQLException {
+
+            insertTask.setLong(1, id);
+            insertTask.setString(2, name);
+            insertTask.setString(3, description);
+            insertTask.setInt(4, position);
+            insertTask.setString(5, rankKey);
+            insertTask.setLong(6, taskStateId);
+            add(insertTask);
+
+            insertedTasks.incrementAndGet();
+        }
+
+        private void add(PreparedStatement statement) throws SQLException {
+
+            statement.addBatch();
+
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+
+            if (pending == 0) {
+                return;
+            }
+
+            // Порядок важен для внешних ключей: родительские строки отправляются раньше дочерних,
+            // ссылки на соседние колонки - после вставки самих колонок
+            insertUser.executeBatch();
+            insertProject.executeBatch();
+            insertTaskState.executeBatch();
+            linkTaskState.executeBatch();
+            insertTask.executeBatch();
+
+            connection.commit();
+
+            executedStatements.addAndGet(pending);
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+
+            try {
+                flush();
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+}
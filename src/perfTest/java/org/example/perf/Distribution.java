@@ -0,0 +1,87 @@
+package org.example.perf;
+
+import java.util.SplittableRandom;
+
+/*
+Distribution:
+Распределение размеров для DatasetGenerator, задаётся строкой:
+"N" - всегда N, "uniform:MIN-MAX" - равномерно от MIN до MAX включительно,
+"lognormal:MEDIAN:SIGMA:MAX" - логнормальное с медианой MEDIAN, обрезанное сверху по MAX
+(большинство значений небольшие, но встречаются очень большие - как колонки с тысячами задач в продакшене).
+ */
+public abstract class Distribution {
+
+    public abstract int sample(SplittableRandom random);
+
+    public static Distribution parse(String spec) {
+
+        String[] parts = spec.trim().split(":");
+
+        try {
+            switch (parts[0]) {
+
+                case "uniform": {
+
+                    String[] bounds = parts[1].split("-");
+
+                    int min = Integer.parseInt(bounds[0]);
+                    int max = Integer.parseInt(bounds[1]);
+
+                    checkArgument(min >= 0 && min <= max, spec);
+
+                    return new Distribution() {
+                        @Override
+                        public int sample(SplittableRandom random) {
+                            return random.nextInt(min, max + 1);
+                        }
+                    };
+                }
+
+                case "lognormal": {
+
+                    double median = Double.parseDouble(parts[1]);
+                    double sigma = Double.parseDouble(parts[2]);
+                    int max = Integer.parseInt(parts[3]);
+
+                    checkArgument(median > 0 && sigma >= 0 && max >= 0, spec);
+
+                    return new Distribution() {
+                        @Override
+                        public int sample(SplittableRandom random) {
+                            return (int) Math.min(max, Math.round(median * Math.exp(sigma * random.nextGaussian())));
+                        }
+                    };
+                }
+
+                default: {
+
+                    int value = Integer.parseInt(parts[0]);
+
+                    checkArgument(parts.length == 1 && value >= 0, spec);
+
+                    return new Distribution() {
+                        @Override
+                        public int sample(SplittableRandom random) {
+                            return value;
+                        }
+                    };
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException(invalidSpecMessage(spec), e);
+        }
+    }
+
+    private static void checkArgument(boolean valid, String spec) {
+
+        if (!valid) {
+            throw new IllegalArgumentException(invalidSpecMessage(spec));
+        }
+    }
+
+    private static String invalidSpecMessage(String spec) {
+
+        return String.format(
+                "Invalid distribution \"%s\", expected N, uniform:MIN-MAX or lognormal:MEDIAN:SIGMA:MAX", spec);
+    }
+}
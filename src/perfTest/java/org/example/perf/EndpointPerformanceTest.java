@@ -0,0 +1,163 @@
+package org.example.perf;
+
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+EndpointPerformanceTest:
+Поднимает приложение на H2 в режиме PostgreSQL, заполняет доску реалистичного размера
+(perf.task-states колонок по perf.tasks-per-task-state задач и ещё perf.projects проектов у того же пользователя),
+нагружает GET-эндпоинты из perf.concurrency клиентов и сравнивает задержки, пропускную способность и число
+SQL-запросов на вызов с perf-budget.properties. Запуск: ./gradlew perfTest
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("perf")
+class EndpointPerformanceTest {
+
+    private static final int PROJECTS = Integer.getInteger("perf.projects", 20);
+    private static final int TASK_STATES = Integer.getInteger("perf.task-states", 10);
+    private static final int TASKS_PER_TASK_STATE = Integer.getInteger("perf.tasks-per-task-state", 200);
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 32);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("perf.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("perf.duration", "PT15S"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void readEndpoints_stayWithinBudget() throws Exception {
+
+        String suffix = UUID.randomUUID().toString();
+
+        UserEntity user = new TransactionTemplate(transactionManager).execute(status -> {
+
+            UserEntity appUser = userRepository.save(
+                    UserEntity.builder()
+                            .username("perf-" + suffix)
+                            .password("password")
+                            .build()
+            );
+
+            for (int i = 0; i < PROJECTS; i++) {
+                projectRepository.save(
+                        ProjectEntity.builder()
+                                .name("project-" + i + "-" + suffix)
+                                .appUser(appUser)
+                                .build()
+                );
+            }
+
+            return appUser;
+        });
+
+        List<TaskStateEntity> taskStates = new ArrayList<>();
+
+        ProjectEntity project = new TransactionTemplate(transactionManager).execute(status -> {
+
+            ProjectEntity board = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("board-" + suffix)
+                            .appUser(user)
+                            .build()
+            );
+
+            TaskStateEntity previous = null;
+
+            for (int i = 0; i < TASK_STATES; i++) {
+
+                TaskStateEntity taskState = taskStateRepository.save(
+                        TaskStateEntity.builder()
+                                .name("state-" + i)
+                                .ordinal(i)
+                                .project(board)
+                                .leftTaskState(previous)
+                                .build()
+                );
+
+                if (previous != null) {
+                    previous.setRightTaskState(taskState);
+                }
+
+                List<TaskEntity> tasks = new ArrayList<>();
+
+                for (int j = 0; j < TASKS_PER_TASK_STATE; j++) {
+                    tasks.add(TaskEntity.builder()
+                            .name("task " + i + "-" + j)
+                            .description("Generated task " + j + " in state " + i)
+                            .position(j)
+                            .taskState(taskState)
+                            .build());
+                }
+
+                taskRepository.saveAll(tasks).forEach(task -> taskSearchIndex.indexAfterCommit(user.getId(), board.getId(), task));
+
+                taskStates.add(taskState);
+                previous = taskState;
+            }
+
+            return board;
+        });
+
+        Long taskStateId = taskStates.get(0).getId();
+
+        LoadDriver loadDriver = new LoadDriver("http://localhost:" + port, jwtUtil.generateToken(user.getUsername(), user.getId()))
+                .addEndpoint("projects", "/api/projects")
+                .addEndpoint("board", "/api/projects/" + project.getId() + "/board")
+                .addEndpoint("task_states", "/api/projects/" + project.getId() + "/task_states")
+                .addEndpoint("tasks", "/api/task_states/" + taskStateId + "/tasks")
+                .addEndpoint("tasks_page", "/api/task_states/" + taskStateId + "/tasks?limit=50")
+                .addEndpoint("search", "/api/tasks/search?query=task");
+
+        LoadDriver.LoadReport report = loadDriver.run(CONCURRENCY, WARMUP, DURATION);
+
+        System.out.printf("total: %s%n", report.total());
+        report.byEndpoint().forEach((endpoint, result) -> System.out.printf("%s: %s%n", endpoint, result));
+
+        List<String> violations = new PerformanceBudget().check(report.byEndpoint());
+
+        assertTrue(violations.isEmpty(), "Performance budget exceeded:\n" + String.join("\n", violations));
+    }
+}
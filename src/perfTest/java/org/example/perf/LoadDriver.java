@@ -0,0 +1,262 @@
+package org.example.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+LoadDriver:
+HTTP-клиент нагрузочных прогонов. Заданное число виртуальных потоков-клиентов по кругу вызывает
+зарегистрированные GET-эндпоинты и собирает по каждому задержки, ошибки и число SQL-запросов
+из заголовка X-SQL-Statement-Count (если приложение запущено с sql.statement-counter.response-header=true).
+Данные можно создать через API (prepareDataset) или передать готовый токен и пути (addEndpoint).
+ */
+public class LoadDriver {
+
+    private static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private String token;
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    public LoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public LoadDriver(String baseUrl, String token) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+    }
+
+    public LoadDriver addEndpoint(String name, String path) {
+
+        endpoints.add(new Endpoint(name, path));
+
+        return this;
+    }
+
+    public void prepareDataset(int taskStates, int tasksPerTaskState) throws IOException, InterruptedException {
+
+        String username = "perf-" + UUID.randomUUID();
+        String password = "perf-password";
+
+        send("POST", "/auth/register?name=" + encode(username) + "&password=" + encode(password), false);
+        token = send("POST", "/auth/login?name=" + encode(username) + "&password=" + encode(password), false);
+
+        long projectId = readId(send("POST", "/api/projects?name=" + encode("perf-project"), true));
+
+        addEndpoint("projects", "/api/projects");
+        addEndpoint("board", "/api/projects/" + projectId + "/board");
+        addEndpoint("task_states", "/api/projects/" + projectId + "/task_states");
+
+        for (int i = 0; i < taskStates; i++) {
+
+            long taskStateId = readId(send(
+                    "POST",
+                    "/api/projects/" + projectId + "/task_states?task_state_name=" + encode("state-" + i),
+                    true
+            ));
+
+            addEndpoint("tasks", "/api/task_states/" + taskStateId + "/tasks");
+
+            for (int j = 0; j < tasksPerTaskState; j++) {
+                send(
+                        "POST",
+                        "/api/task_states/" + taskStateId + "/tasks?task_name=" + encode("task-" + i + "-" + j)
+                                + "&description=" + encode("Task " + j + " of state " + i),
+                        true
+                );
+            }
+        }
+    }
+
+    public LoadReport run(int concurrency, Duration warmup, Duration duration) throws Exception {
+
+        runClients(concurrency, warmup);
+
+        long startedAt = System.nanoTime();
+        List<Sample> samples = runClients(concurrency, duration);
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        Map<String, List<Sample>> samplesByEndpoint = new LinkedHashMap<>();
+
+        endpoints.forEach(endpoint -> samplesByEndpoint.putIfAbsent(endpoint.name(), new ArrayList<>()));
+        samples.forEach(sample -> samplesByEndpoint.get(sample.endpoint()).add(sample));
+
+        Map<String, LoadResult> results = new LinkedHashMap<>();
+
+        samplesByEndpoint.forEach((endpoint, endpointSamples) ->
+                results.put(endpoint, LoadResult.of(endpointSamples, elapsedNanos)));
+
+        return new LoadReport(LoadResult.of(samples, elapsedNanos), results);
+    }
+
+    private List<Sample> runClients(int concurrency, Duration duration) throws Exception {
+
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<List<Sample>>> clients = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int client = 0; client < concurrency; client++) {
+
+                int offset = client;
+
+                clients.add(executor.submit(() -> {
+
+                    List<Sample> clientSamples = new ArrayList<>();
+
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+
+                        Endpoint endpoint = endpoints.get(i % endpoints.size());
+
+                        HttpRequest request = authorized(endpoint.path()).GET().build();
+
+                        long requestStartedAt = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        long latency = System.nanoTime() - requestStartedAt;
+
+                        int statements = response
+                                .headers()
+                                .firstValue(STATEMENT_COUNT_HEADER)
+                                .map(Integer::parseInt)
+                                .orElse(-1);
+
+                        clientSamples.add(new Sample(endpoint.name(), latency, statements, response.statusCode() != 200));
+                    }
+
+                    return clientSamples;
+                }));
+            }
+        }
+
+        List<Sample> samples = new ArrayList<>();
+
+        for (Future<List<Sample>> client : clients) {
+            samples.addAll(client.get());
+        }
+
+        return samples;
+    }
+
+    private String send(String method, String path, boolean authorized) throws IOException, InterruptedException {
+
+        HttpRequest.Builder builder = authorized
+                ? authorized(path)
+                : HttpRequest.newBuilder(URI.create(baseUrl + path));
+
+        HttpResponse<String> response = httpClient.send(
+                builder.method(method, HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(
+                    String.format("%s %s returned %s: %s", method, path, response.statusCode(), response.body()));
+        }
+
+        return response.body();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private long readId(String body) throws IOException {
+
+        JsonNode node = objectMapper.readTree(body);
+
+        return node.get("id").asLong();
+    }
+
+    private static String encode(String value) {
+
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    public record Endpoint(String name, String path) {
+    }
+
+    private record Sample(String endpoint, long latencyNanos, int statements, boolean error) {
+    }
+
+    public record LoadReport(LoadResult total, Map<String, LoadResult> byEndpoint) {
+    }
+
+    public record LoadResult(long[] latencies, long errors, int maxStatements, long elapsedNanos) {
+
+        private static LoadResult of(List<Sample> samples, long elapsedNanos) {
+
+            long[] latencies = samples.stream().mapToLong(Sample::latencyNanos).sorted().toArray();
+
+            return new LoadResult(
+                    latencies,
+                    samples.stream().filter(Sample::error).count(),
+                    samples.stream().mapToInt(Sample::statements).max().orElse(-1),
+                    elapsedNanos
+            );
+        }
+
+        public long requests() {
+            return latencies.length;
+        }
+
+        public double throughput() {
+            return latencies.length / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public double percentileMillis(double percentile) {
+
+            if (latencies.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format(
+                    "requests=%d throughput=%.1f req/s p50=%.2f ms p95=%.2f ms p99=%.2f ms max-sql=%d errors=%d",
+                    requests(),
+                    throughput(),
+                    percentileMillis(50),
+                    percentileMillis(95),
+                    percentileMillis(99),
+                    maxStatements,
+                    errors
+            );
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+PerformanceBudget:
+Лимиты из perf-budget.properties (p99-ms, max-sql, min-throughput по каждому эндпоинту) с переопределением
+через системные свойства perf.budget.<ключ>. check() возвращает список нарушений для отчёта LoadDriver.
+ */
+public class PerformanceBudget {
+
+    private static final String BUDGET_RESOURCE = "/perf-budget.properties";
+    private static final String OVERRIDE_PREFIX = "perf.budget.";
+
+    private final Properties limits = new Properties();
+
+    public PerformanceBudget() throws IOException {
+
+        try (InputStream budget = PerformanceBudget.class.getResourceAsStream(BUDGET_RESOURCE)) {
+
+            if (budget == null) {
+                throw new IllegalStateException(BUDGET_RESOURCE + " not found");
+            }
+
+            limits.load(budget);
+        }
+
+        System.getProperties().stringPropertyNames()
+                .stream()
+                .filter(name -> name.startsWith(OVERRIDE_PREFIX))
+                .forEach(name -> limits.setProperty(name.substring(OVERRIDE_PREFIX.length()), System.getProperty(name)));
+    }
+
+    public List<String> check(Map<String, LoadDriver.LoadResult> results) {
+
+        List<String> violations = new ArrayList<>();
+
+        results.forEach((endpoint, result) -> {
+
+            if (result.errors() > 0) {
+                violations.add(String.format("%s: %d failed requests", endpoint, result.errors()));
+            }
+
+            String maxP99 = limits.getProperty(endpoint + ".p99-ms");
+
+            if (maxP99 != null && result.percentileMillis(99) > Double.parseDouble(maxP99)) {
+                violations.add(String.format(
+                        "%s: p99 %.2f ms exceeds budget %s ms", endpoint, result.percentileMillis(99), maxP99));
+            }
+
+            String maxSql = limits.getProperty(endpoint + ".max-sql");
+
+            if (maxSql != null && result.maxStatements() > Integer.parseInt(maxSql)) {
+                violations.add(String.format(
+                        "%s: %d SQL statements per request exceeds budget %s", endpoint, result.maxStatements(), maxSql));
+            }
+
+            String minThroughput = limits.getProperty(endpoint + ".min-throughput");
+
+            if (minThroughput != null && result.throughput() < Double.parseDouble(minThroughput)) {
+                violations.add(String.format(
+                        "%s: throughput %.1f req/s is below budget %s req/s", endpoint, result.throughput(), minThroughput));
+            }
+        });
+
+        return violations;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.perf;
+
+import org.example.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ThreadModeLoadBenchmark:
+Поднимает приложение дважды - с обычными и с виртуальными потоками Tomcat (spring.threads.virtual.enabled) -
+на одной и той же базе и прогоняет одинаковую нагрузку по GET-эндпоинтам доски. В конце печатает
+пропускную способность, p50/p99 и число ошибок для обоих режимов.
+Запуск: ./gradlew loadBenchmark -Pbenchmark.concurrency=1000 -Pbenchmark.datasource-url=jdbc:postgresql://...
+С -Djdk.tracePinnedThreads=short (задано в задаче) JVM печатает стек при закреплении виртуального потока.
+ */
+public class ThreadModeLoadBenchmark {
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    public static void main(String[] args) throws Exception {
+
+        // Ниже JDK 21 Spring игнорирует spring.threads.virtual.enabled, и оба прогона шли бы на обычных потоках
+        if (Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+            throw new IllegalStateException(String.format(
+                    "Virtual threads require Java %d, the benchmark runs on Java %d.",
+                    VIRTUAL_THREADS_JAVA_VERSION,
+                    Runtime.version().feature()
+            ));
+        }
+
+        int concurrency = Integer.getInteger("benchmark.concurrency", 500);
+        Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+        int taskStates = Integer.getInteger("benchmark.task-states", 5);
+        int tasksPerTaskState = Integer.getInteger("benchmark.tasks-per-task-state", 20);
+
+        List<String> results = new ArrayList<>();
+
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+
+            List<String> properties = new ArrayList<>(List.of(
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtualThreads
+            ));
+
+            String datasourceUrl = System.getProperty("benchmark.datasource-url");
+
+            if (datasourceUrl != null) {
+                properties.add("spring.datasource.url=" + datasourceUrl);
+            }
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                    .properties(properties.toArray(new String[0]))
+                    .run(args)) {
+
+                String port = context.getEnvironment().getProperty("local.server.port");
+
+                LoadDriver loadDriver = new LoadDriver("http://localhost:" + port);
+                loadDriver.prepareDataset(taskStates, tasksPerTaskState);
+
+                LoadDriver.LoadResult result = loadDriver.run(concurrency, warmup, duration).total();
+
+                results.add(String.format(
+                        "%-8s concurrency=%d %s",
+                        virtualThreads ? "virtual" : "platform",
+                        concurrency,
+                        result
+                ));
+            }
+        }
+
+        results.forEach(System.out::println);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.api;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.api.controllers.AuthController;
+import org.example.api.controllers.helpers.PasswordHashingHelper;
+import org.example.api.exceptions.TooManyRequestsException;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+AuthConnectionTest:
+Пока запрос ждёт PasswordHashingHelper, он не должен держать соединение основного пула:
+при насыщенном хэшировании иначе первым заканчивается пул Hikari, а не очередь BCrypt.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthConnectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordHashingHelper passwordHashingHelper;
+
+    @Test
+    void login_hashingSaturated_holdsNoConnection() throws Exception {
+
+        String name = "user-" + UUID.randomUUID();
+
+        userRepository.save(
+                UserEntity.builder()
+                        .username(name)
+                        .password("encodedPassword")
+                        .build()
+        );
+
+        AtomicInteger activeConnections = new AtomicInteger(-1);
+
+        when(passwordHashingHelper.matches(any(), any())).thenAnswer(invocation -> {
+            activeConnections.set(primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+            throw saturated();
+        });
+
+        mockMvc.perform(post(AuthController.LOGIN).param("name", name).param("password", "password"))
+                .andExpect(status().isTooManyRequests());
+
+        assertEquals(0, activeConnections.get());
+    }
+
+    @Test
+    void register_hashingSaturated_holdsNoConnection() throws Exception {
+
+        AtomicInteger activeConnections = new AtomicInteger(-1);
+
+        when(passwordHashingHelper.encode(any())).thenAnswer(invocation -> {
+            activeConnections.set(primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+            throw saturated();
+        });
+
+        mockMvc.perform(post(AuthController.REGISTER)
+                        .param("name", "user-" + UUID.randomUUID())
+                        .param("password", "password"))
+                .andExpect(status().isTooManyRequests());
+
+        assertEquals(0, activeConnections.get());
+    }
+
+    private static TooManyRequestsException saturated() {
+
+        return new TooManyRequestsException("Too many authentication requests, try again later.", Duration.ofSeconds(1));
+    }
+}
@@ -1,8 +1,10 @@
 package org.example.api;
 
 import org.example.api.controllers.AuthController;
+import org.example.api.controllers.helpers.PasswordHashingHelper;
 import org.example.api.dto.UserDto;
 import org.example.api.exceptions.BadRequestException;
+import org.example.api.exceptions.TooManyRequestsException;
 import org.example.api.mappers.UserDtoMapper;
 import org.example.store.entities.UserEntity;
 import org.example.store.repositories.UserRepository;
@@ -13,12 +15,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,7 +34,7 @@ class AuthControllerTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingHelper passwordHashingHelper;
 
     @Mock
     private JwtUtil jwtUtil;
@@ -37,6 +42,9 @@ class AuthControllerTest {
     @Mock
     private UserDtoMapper userDtoMapper;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AuthController authController;
 
@@ -52,7 +60,7 @@ class AuthControllerTest {
         String password = "password123";
 
         when(userRepository.findByUsername(name)).thenReturn(Optional.empty());
-        when(passwordEncoder.encode(password)).thenReturn("encodedPassword");
+        when(passwordHashingHelper.encode(password)).thenReturn("encodedPassword");
         UserEntity userEntity = new UserEntity();
         userEntity.setUsername(name);
         userEntity.setPassword("encodedPassword");
@@ -85,6 +93,21 @@ class AuthControllerTest {
         assertEquals("Username is already taken", exception.getMessage());
     }
 
+    @Test
+    void register_nameTakenConcurrently_throwsException() {
+
+        String name = "testUser";
+        String password = "password123";
+
+        when(userRepository.findByUsername(name)).thenReturn(Optional.empty());
+        when(passwordHashingHelper.encode(password)).thenReturn("encodedPassword");
+        when(userRepository.save(any(UserEntity.class))).thenThrow(new DataIntegrityViolationException("app_user_username_key"));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authController.register(name, password));
+        assertEquals("Username is already taken", exception.getMessage());
+    }
+
     @Test
     void login_successful() {
         // Arrange
@@ -92,12 +115,13 @@ class AuthControllerTest {
         String password = "password123";
 
         UserEntity userEntity = new UserEntity();
+        userEntity.setId(1L);
         userEntity.setUsername(name);
         userEntity.setPassword("encodedPassword");
 
         when(userRepository.findByUsername(name)).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(password, "encodedPassword")).thenReturn(true);
-        when(jwtUtil.generateToken(name)).thenReturn("mockedJwtToken");
+        when(passwordHashingHelper.matches(password, "encodedPassword")).thenReturn(true);
+        when(jwtUtil.generateToken(name, 1L)).thenReturn("mockedJwtToken");
 
         // Act
         String result = authController.login(name, password);
@@ -106,8 +130,8 @@ class AuthControllerTest {
         assertNotNull(result);
         assertEquals("mockedJwtToken", result);
         verify(userRepository).findByUsername(name);
-        verify(passwordEncoder).matches(password, "encodedPassword");
-        verify(jwtUtil).generateToken(name);
+        verify(passwordHashingHelper).matches(password, "encodedPassword");
+        verify(jwtUtil).generateToken(name, 1L);
     }
 
     @Test
@@ -121,13 +145,13 @@ class AuthControllerTest {
         userEntity.setPassword("encodedPassword");
 
         when(userRepository.findByUsername(name)).thenReturn(Optional.of(userEntity));
-        when(passwordEncoder.matches(password, "encodedPassword")).thenReturn(false);
+        when(passwordHashingHelper.matches(password, "encodedPassword")).thenReturn(false);
 
         // Act & Assert
         BadRequestException exception = assertThrows(BadRequestException.class,
                 () -> authController.login(name, password));
         assertEquals("Invalid credentials", exception.getMessage());
-        verify(passwordEncoder).matches(password, "encodedPassword");
+        verify(passwordHashingHelper).matches(password, "encodedPassword");
     }
 
     @Test
@@ -146,4 +170,46 @@ class AuthControllerTest {
                 () -> authController.login(name, password));
         assertEquals("Invalid credentials", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_bcryptCostChanged_rehashesPassword() {
+
+        String name = "testUser";
+        String password = "password123";
+
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(1L);
+        userEntity.setUsername(name);
+        userEntity.setPassword("oldHash");
+
+        when(userRepository.findByUsername(name)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingHelper.matches(password, "oldHash")).thenReturn(true);
+        when(passwordHashingHelper.needsRehash("oldHash")).thenReturn(true);
+        when(passwordHashingHelper.encode(password)).thenReturn("newHash");
+        when(jwtUtil.generateToken(name, 1L)).thenReturn("mockedJwtToken");
+
+        assertEquals("mockedJwtToken", authController.login(name, password));
+
+        assertEquals("newHash", userEntity.getPassword());
+        verify(userRepository).save(userEntity);
+    }
+
+    @Test
+    void login_hashingSaturated_throwsException() {
+
+        String name = "testUser";
+        String password = "password123";
+
+        UserEntity userEntity = new UserEntity();
+        userEntity.setUsername(name);
+        userEntity.setPassword("encodedPassword");
+
+        when(userRepository.findByUsername(name)).thenReturn(Optional.of(userEntity));
+        when(passwordHashingHelper.matches(password, "encodedPassword"))
+                .thenThrow(new TooManyRequestsException("Too many authentication requests, try again later.", Duration.ofSeconds(1)));
+
+        assertThrows(TooManyRequestsException.class, () -> authController.login(name, password));
+
+        verify(jwtUtil, never()).generateToken(any(), any());
+    }
+}
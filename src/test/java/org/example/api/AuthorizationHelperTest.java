@@ -0,0 +1,183 @@
+package org.example.api;
+
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.exceptions.BadRequestException;
+import org.example.api.exceptions.NotFoundException;
+import org.example.store.repositories.ProjectOwnershipProjection;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionProjection;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthorizationHelperTest {
+
+    @Mock
+    private ControllerHelper controllerHelper;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private TaskStateRepository taskStateRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @InjectMocks
+    private AuthorizationHelper authorizationHelper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        when(controllerHelper.getCurrentUserId())
+                .thenReturn(1L);
+    }
+
+    @Test
+    void checkProjectOwner_owner_successful() {
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(1L));
+
+        assertDoesNotThrow(() -> authorizationHelper.checkProjectOwnerOrThrowException(10L, "denied"));
+    }
+
+    @Test
+    void checkProjectOwner_anotherUser_throwsException() {
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.of(2L));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authorizationHelper.checkProjectOwnerOrThrowException(10L, "denied"));
+
+        assertEquals("denied", exception.getMessage());
+    }
+
+    @Test
+    void checkProjectOwner_projectNotFound_throwsException() {
+
+        when(projectRepository.findOwnerIdById(10L))
+                .thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> authorizationHelper.checkProjectOwnerOrThrowException(10L, "denied"));
+
+        assertEquals("Project with \"10\" doesn't exist.", exception.getMessage());
+
+        verify(controllerHelper, never())
+                .getCurrentUserId();
+    }
+
+    @Test
+    void checkProjectOwnerAndGetVersion_owner_returnsVersion() {
+
+        when(projectRepository.findOwnerIdAndVersionById(10L))
+                .thenReturn(Optional.of(projectVersion(1L, 7L)));
+
+        assertEquals(7L, authorizationHelper.checkProjectOwnerAndGetVersion(10L, "denied"));
+    }
+
+    @Test
+    void checkProjectOwnerAndGetVersion_anotherUser_throwsException() {
+
+        when(projectRepository.findOwnerIdAndVersionById(10L))
+                .thenReturn(Optional.of(projectVersion(2L, 7L)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authorizationHelper.checkProjectOwnerAndGetVersion(10L, "denied"));
+
+        assertEquals("denied", exception.getMessage());
+    }
+
+    @Test
+    void checkTaskStateOwner_returnsOwnership() {
+
+        when(taskStateRepository.findOwnershipById(5L))
+                .thenReturn(Optional.of(ownership(10L, 1L)));
+
+        ProjectOwnershipProjection result = authorizationHelper.checkTaskStateOwnerOrThrowException(5L);
+
+        assertEquals(10L, result.getProjectId());
+    }
+
+    @Test
+    void checkTaskStateOwner_anotherProject_throwsException() {
+
+        when(taskStateRepository.findOwnershipById(5L))
+                .thenReturn(Optional.of(ownership(10L, 1L)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authorizationHelper.checkTaskStateOwnerOrThrowException(20L, 5L));
+
+        assertEquals("Task state \"5\" doesn't belong to project \"20\".", exception.getMessage());
+    }
+
+    @Test
+    void checkTaskOwner_anotherUser_throwsException() {
+
+        when(taskRepository.findOwnershipById(7L))
+                .thenReturn(Optional.of(ownership(10L, 2L)));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> authorizationHelper.checkTaskOwnerOrThrowException(7L));
+
+        assertEquals(AuthorizationHelper.ACCESS_DENIED, exception.getMessage());
+    }
+
+    @Test
+    void checkTaskOwner_taskNotFound_throwsException() {
+
+        when(taskRepository.findOwnershipById(7L))
+                .thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> authorizationHelper.checkTaskOwnerOrThrowException(7L));
+
+        assertEquals("Task \"7\" doesn't exist.", exception.getMessage());
+    }
+
+    private static ProjectOwnershipProjection ownership(Long projectId, Long ownerId) {
+
+        return new ProjectOwnershipProjection() {
+
+            @Override
+            public Long getProjectId() {
+                return projectId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+
+    private static ProjectVersionProjection projectVersion(Long ownerId, Long version) {
+
+        return new ProjectVersionProjection() {
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
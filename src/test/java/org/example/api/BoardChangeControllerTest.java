@@ -0,0 +1,328 @@
+package org.example.api;
+
+import jakarta.persistence.EntityManager;
+import org.example.config.SqlStatementCounter;
+import org.example.jobs.BoardChangeCompactionJob;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+BoardChangeControllerTest:
+Версия доски (ETag) и журнал board_change: клиент по since_version получает только изменения после своей
+версии, а если журнал неполон (компакция, записи до появления журнала), ответ требует resync.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BoardChangeControllerTest {
+
+    private static final int TASK_STATES_COUNT = 3;
+    private static final int TASKS_PER_TASK_STATE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private BoardChangeCompactionJob boardChangeCompactionJob;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private String token;
+
+    private ProjectEntity project;
+
+    private final List<TaskStateEntity> taskStates = new ArrayList<>();
+
+    private final List<TaskEntity> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        String suffix = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = userRepository.save(
+                    UserEntity.builder()
+                            .username("user-" + suffix)
+                            .password("password")
+                            .build()
+            );
+
+            project = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("project-" + suffix)
+                            .appUser(user)
+                            .build()
+            );
+
+            projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 0));
+
+            TaskStateEntity previous = null;
+
+            for (int i = 0; i < TASK_STATES_COUNT; i++) {
+
+                TaskStateEntity taskState = taskStateRepository.save(
+                        TaskStateEntity.builder()
+                                .name("state-" + i)
+                                .ordinal(i)
+                                .project(project)
+                                .leftTaskState(previous)
+                                .build()
+                );
+
+                if (previous != null) {
+                    previous.setRightTaskState(taskState);
+                }
+
+                for (int j = 0; j < TASKS_PER_TASK_STATE; j++) {
+                    tasks.add(taskRepository.save(
+                            TaskEntity.builder()
+                                    .name("task-" + i + "-" + j)
+                                    .description("description")
+                                    .position(j)
+                                    .taskState(taskState)
+                                    .build()
+                    ));
+                }
+
+                taskStates.add(taskState);
+                previous = taskState;
+            }
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        });
+    }
+
+    @Test
+    void getBoard_afterTaskChange_returnsNewETag() throws Exception {
+
+        String eTag = mockMvc.perform(get("/api/projects/{project_id}/board", project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/tasks/{task_id}", tasks.get(0).getId())
+                        .param("task_name", "renamed task")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/projects/{project_id}/board", project.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void getBoardChanges_returnsOnlyChangedTasks() throws Throwable {
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(patch("/api/tasks/{task_id}", tasks.get(i * TASKS_PER_TASK_STATE).getId())
+                            .param("task_name", "renamed task " + i)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(delete("/api/tasks/{task_id}", tasks.get(1).getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertMaxStatements(3, get("/api/projects/{project_id}/changes", project.getId())
+                .param("since_version", "0"));
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "0")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.tasks.length()").value(3))
+                .andExpect(jsonPath("$.deletedTaskIds[0]").value(tasks.get(1).getId()))
+                .andExpect(jsonPath("$.taskStates").doesNotExist());
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "4")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(jsonPath("$.tasks").doesNotExist());
+    }
+
+    @Test
+    void getBoardChanges_afterTaskStateChange_returnsColumnsWithoutTasks() throws Exception {
+
+        mockMvc.perform(patch(
+                        "/api/projects/{project_id}/task_states/{task_state_id}",
+                        project.getId(),
+                        taskStates.get(0).getId()
+                )
+                        .param("task_state_name", "renamed state")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "0")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.taskStates.length()").value(TASK_STATES_COUNT))
+                .andExpect(jsonPath("$.taskStates[0].name").value("renamed state"))
+                .andExpect(jsonPath("$.taskStates[0].tasks").isEmpty())
+                .andExpect(jsonPath("$.tasks").isEmpty());
+    }
+
+    @Test
+    void getBoardChanges_missingLogEntries_requiresResync() throws Exception {
+
+        // Версии, для которых в журнале нет записей: как после компакции или до появления журнала
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 3)));
+
+        mockMvc.perform(patch("/api/tasks/{task_id}", tasks.get(0).getId())
+                        .param("task_name", "renamed task")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(4))
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.tasks").doesNotExist());
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "3")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.tasks[0].task.name").value("renamed task"));
+    }
+
+    @Test
+    void getBoardChanges_projectWithoutVersionRow_startsFromFirstVersion() throws Exception {
+
+        // Проект, созданный до появления счётчика версий
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                projectVersionRepository.deleteByProjectId(project.getId()));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(patch("/api/tasks/{task_id}", tasks.get(i).getId())
+                            .param("task_name", "renamed task " + i)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "0")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2))
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.tasks.length()").value(2));
+    }
+
+    @Test
+    void getBoardChanges_afterCompaction_requiresResync() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(patch("/api/tasks/{task_id}", tasks.get(i).getId())
+                            .param("task_name", "renamed task " + i)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        // Записи версий 1 и 2 старше boards.changes.retention (P7D по умолчанию)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("update BoardChangeEntity c set c.createdAt = :createdAt " +
+                        "where c.projectId = :projectId and c.version <= 2")
+                .setParameter("createdAt", Instant.now().minus(Duration.ofDays(8)))
+                .setParameter("projectId", project.getId())
+                .executeUpdate());
+
+        boardChangeCompactionJob.compact();
+
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "0")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(3))
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.tasks").doesNotExist());
+
+        // Клиенту, который уже видел версию 2, хватает оставшейся записи
+        mockMvc.perform(get("/api/projects/{project_id}/changes", project.getId())
+                        .param("since_version", "2")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.tasks.length()").value(1))
+                .andExpect(jsonPath("$.tasks[0].task.name").value("renamed task 2"));
+    }
+
+    private void assertMaxStatements(long maxStatements, MockHttpServletRequestBuilder request) throws Throwable {
+
+        SqlStatementAssertions.assertMaxStatements(sqlStatementCounter, maxStatements, () ->
+                mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.dto.BoardEventDto;
+import org.example.api.dto.BoardEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardEventHubTest {
+
+    private static final Long PROJECT_ID = 10L;
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private BoardEventHub boardEventHub;
+
+    @AfterEach
+    void tearDown() {
+
+        if (boardEventHub != null) {
+            boardEventHub.shutdown();
+        }
+    }
+
+    @Test
+    void publish_deliversEventToEverySubscriber() throws InterruptedException {
+
+        boardEventHub = hub(16, 16);
+
+        RecordingEmitter first = subscribe(Optional.empty());
+        RecordingEmitter second = subscribe(Optional.empty());
+
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, 1L));
+
+        for (RecordingEmitter emitter : new RecordingEmitter[]{first, second}) {
+
+            String message = emitter.next();
+
+            assertTrue(message.contains("event:task_created\n"), message);
+            assertTrue(message.contains("data:{\"type\":\"task_created\",\"taskStateId\":5,\"taskId\":1}"), message);
+        }
+
+        assertEquals(2, boardEventHub.getSubscribersCount());
+    }
+
+    @Test
+    void publish_doesNotDeliverEventsOfAnotherProject() throws InterruptedException {
+
+        boardEventHub = hub(16, 16);
+
+        RecordingEmitter emitter = subscribe(Optional.empty());
+
+        boardEventHub.publish(20L, taskEvent(BoardEventType.TASK_CREATED, 1L));
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_DELETED, 2L));
+
+        assertTrue(emitter.next().contains("event:task_deleted\n"));
+        assertNull(emitter.messages.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_withLastEventId_replaysOnlyMissedEvents() throws InterruptedException {
+
+        boardEventHub = hub(16, 16);
+
+        RecordingEmitter live = subscribe(Optional.empty());
+
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, 1L));
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_UPDATED, 1L));
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_MOVED, 1L));
+
+        String firstEventId = eventId(live.next());
+
+        RecordingEmitter resumed = subscribe(Optional.of(firstEventId));
+
+        assertTrue(resumed.next().contains("event:task_updated\n"));
+        assertTrue(resumed.next().contains("event:task_moved\n"));
+        assertNull(resumed.messages.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_withEventNoLongerBuffered_receivesResync() throws InterruptedException {
+
+        boardEventHub = hub(2, 16);
+
+        RecordingEmitter live = subscribe(Optional.empty());
+
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, 1L));
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, 2L));
+        boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, 3L));
+
+        long firstEventId = Long.parseLong(eventId(live.next()));
+
+        RecordingEmitter resumed = subscribe(Optional.of(String.valueOf(firstEventId - 1)));
+
+        String message = resumed.next();
+
+        assertTrue(message.contains("event:resync\n"), message);
+        assertEquals(String.valueOf(firstEventId + 2), eventId(message));
+    }
+
+    @Test
+    void subscribe_withUnknownLastEventId_receivesResync() throws InterruptedException {
+
+        boardEventHub = hub(16, 16);
+
+        RecordingEmitter resumed = subscribe(Optional.of("not-a-number"));
+
+        assertTrue(resumed.next().contains("event:resync\n"));
+    }
+
+    @Test
+    void publish_slowSubscriber_isEvicted() throws InterruptedException {
+
+        boardEventHub = hub(16, 1);
+
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+        boardEventHub.subscribe(PROJECT_ID, Optional.empty(), slow);
+
+        RecordingEmitter fast = subscribe(Optional.empty());
+
+        // Первое событие зависает в отправке, второе занимает очередь, третье в неё уже не помещается
+        for (long taskId = 1; taskId <= 3; taskId++) {
+            boardEventHub.publish(PROJECT_ID, taskEvent(BoardEventType.TASK_CREATED, taskId));
+        }
+
+        assertEquals(1, boardEventHub.getSubscribersCount());
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(fast.next());
+        }
+
+        slow.sendLatch.countDown();
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closeAfterCommit_completesSubscribers() throws InterruptedException {
+
+        boardEventHub = hub(16, 16);
+
+        RecordingEmitter emitter = subscribe(Optional.empty());
+
+        boardEventHub.closeAfterCommit(PROJECT_ID);
+
+        assertTrue(emitter.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, boardEventHub.getSubscribersCount());
+    }
+
+    private BoardEventHub hub(int replayBufferSize, int subscriberQueueSize) {
+
+        return new BoardEventHub(
+                new ObjectMapper(),
+                new SimpleMeterRegistry(),
+                replayBufferSize,
+                subscriberQueueSize,
+                4,
+                Duration.ofMinutes(1),
+                Duration.ofMinutes(10)
+        );
+    }
+
+    private RecordingEmitter subscribe(Optional<String> lastEventId) {
+
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        boardEventHub.subscribe(PROJECT_ID, lastEventId, emitter);
+
+        return emitter;
+    }
+
+    private static BoardEventDto taskEvent(BoardEventType type, Long taskId) {
+
+        return BoardEventDto.builder()
+                .type(type)
+                .taskStateId(5L)
+                .taskId(taskId)
+                .build();
+    }
+
+    private static String eventId(String message) {
+
+        Matcher matcher = EVENT_ID.matcher(message);
+
+        assertTrue(matcher.find(), message);
+
+        return matcher.group(1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        private final CountDownLatch sendLatch;
+
+        private RecordingEmitter(CountDownLatch sendLatch) {
+            this.sendLatch = sendLatch;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+
+            if (sendLatch != null) {
+                try {
+                    sendLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            StringBuilder message = new StringBuilder();
+            items.forEach(item -> message.append(item.getData()));
+
+            messages.add(message.toString());
+        }
+
+        @Override
+        public void complete() {
+
+            completed.countDown();
+        }
+
+        private String next() throws InterruptedException {
+
+            String message = messages.poll(5, TimeUnit.SECONDS);
+
+            assertNotNull(message, "Expected a board event");
+
+            return message;
+        }
+    }
+}
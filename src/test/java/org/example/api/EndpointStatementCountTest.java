@@ -0,0 +1,305 @@
+package org.example.api;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.SqlStatementCounter;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+EndpointStatementCountTest:
+Проверяет, что количество SQL-запросов на каждый эндпоинт не зависит от размера доски.
+Доска специально заполняется несколькими колонками с большим числом задач: любая N+1 загрузка
+сразу выйдет за пределы бюджета.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EndpointStatementCountTest {
+
+    private static final int TASK_STATES_COUNT = 5;
+    private static final int TASKS_PER_TASK_STATE = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private String token;
+
+    private ProjectEntity project;
+
+    private final List<TaskStateEntity> taskStates = new ArrayList<>();
+
+    private final List<TaskEntity> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        String suffix = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = userRepository.save(
+                    UserEntity.builder()
+                            .username("user-" + suffix)
+                            .password("password")
+                            .build()
+            );
+
+            project = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("project-" + suffix)
+                            .appUser(user)
+                            .build()
+            );
+
+            projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 0));
+
+            TaskStateEntity previous = null;
+
+            for (int i = 0; i < TASK_STATES_COUNT; i++) {
+
+                TaskStateEntity taskState = taskStateRepository.save(
+                        TaskStateEntity.builder()
+                                .name("state-" + i)
+                                .ordinal(i)
+                                .project(project)
+                                .leftTaskState(previous)
+                                .build()
+                );
+
+                if (previous != null) {
+                    previous.setRightTaskState(taskState);
+                }
+
+                for (int j = 0; j < TASKS_PER_TASK_STATE; j++) {
+                    tasks.add(taskRepository.save(
+                            TaskEntity.builder()
+                                    .name("task-" + i + "-" + j)
+                                    .description("description")
+                                    .position(j)
+                                    .taskState(taskState)
+                                    .build()
+                    ));
+                }
+
+                taskStates.add(taskState);
+                previous = taskState;
+            }
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        });
+    }
+
+    @Test
+    void fetchProjects_statementCount() throws Throwable {
+
+        assertMaxStatements(2, get("/api/projects"));
+    }
+
+    @Test
+    void getTaskStates_statementCount() throws Throwable {
+
+        assertMaxStatements(3, get("/api/projects/{project_id}/task_states", project.getId()));
+    }
+
+    @Test
+    void getBoard_statementCount() throws Throwable {
+
+        assertMaxStatements(3, get("/api/projects/{project_id}/board", project.getId()));
+    }
+
+    @Test
+    void getTasks_statementCount() throws Throwable {
+
+        assertMaxStatements(2, get("/api/task_states/{task_state_id}/tasks", taskStates.get(0).getId()));
+    }
+
+    @Test
+    void createTask_statementCount() throws Throwable {
+
+        assertMaxStatements(7, post("/api/task_states/{task_state_id}/tasks", taskStates.get(0).getId())
+                .param("task_name", "new task")
+                .param("description", "description"));
+    }
+
+    @Test
+    void updateTask_statementCount() throws Throwable {
+
+        assertMaxStatements(5, patch("/api/tasks/{task_id}", tasks.get(0).getId())
+                .param("task_name", "renamed task"));
+    }
+
+    @Test
+    void changeTaskPosition_statementCount() throws Throwable {
+
+        assertMaxStatements(7, patch("/api/tasks/{task_id}/position", tasks.get(0).getId())
+                .param("new_position", String.valueOf(TASKS_PER_TASK_STATE - 1)));
+    }
+
+    @Test
+    void deleteTask_statementCount() throws Throwable {
+
+        assertMaxStatements(6, delete("/api/tasks/{task_id}", tasks.get(0).getId()));
+    }
+
+    @Test
+    void createTaskState_statementCount() throws Throwable {
+
+        assertMaxStatements(11, post("/api/projects/{project_id}/task_states", project.getId())
+                .param("task_state_name", "new state"));
+    }
+
+    @Test
+    void updateTaskState_statementCount() throws Throwable {
+
+        assertMaxStatements(8, patch(
+                "/api/projects/{project_id}/task_states/{task_state_id}",
+                project.getId(),
+                taskStates.get(0).getId()
+        ).param("task_state_name", "renamed state"));
+    }
+
+    @Test
+    void changeTaskStatePosition_statementCount() throws Throwable {
+
+        assertMaxStatements(18, patch(
+                "/api/projects/{project_id}/task_states/{task_state_id}/position",
+                project.getId(),
+                taskStates.get(0).getId()
+        ).param("left_task_state_id", String.valueOf(taskStates.get(TASK_STATES_COUNT - 1).getId())));
+    }
+
+    @Test
+    void deleteTaskState_statementCount() throws Throwable {
+
+        mockMvc.perform(post("/api/projects/{project_id}/task_states", project.getId())
+                        .param("task_state_name", "empty state")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Long emptyTaskStateId = taskStateRepository
+                .findFirstByProjectIdOrderByOrdinalDesc(project.getId())
+                .orElseThrow()
+                .getId();
+
+        assertMaxStatements(12, delete(
+                "/api/projects/{project_id}/task-states/{task_state_id}",
+                project.getId(),
+                emptyTaskStateId
+        ));
+    }
+
+    @Test
+    void getTaskStates_notModified_readsOnlyVersion() throws Throwable {
+
+        assertNotModifiedWithSingleStatement("/api/projects/{project_id}/task_states");
+    }
+
+    @Test
+    void getBoard_notModified_readsOnlyVersion() throws Throwable {
+
+        assertNotModifiedWithSingleStatement("/api/projects/{project_id}/board");
+    }
+
+    @Test
+    void getBoard_repeatedRead_hitsSecondLevelCache() throws Throwable {
+
+        mockMvc.perform(get("/api/projects/{project_id}/board", project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+
+        mockMvc.perform(get("/api/projects/{project_id}/board", project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertTrue(
+                statistics.getSecondLevelCacheHitCount() > 0,
+                "Expected the project to be read from the second-level cache"
+        );
+    }
+
+    private void assertNotModifiedWithSingleStatement(String urlTemplate) throws Throwable {
+
+        String eTag = mockMvc.perform(get(urlTemplate, project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        SqlStatementAssertions.assertMaxStatements(sqlStatementCounter, 1, () ->
+                mockMvc.perform(get(urlTemplate, project.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string(HttpHeaders.ETAG, eTag)));
+    }
+
+    private void assertMaxStatements(long maxStatements, MockHttpServletRequestBuilder request) throws Throwable {
+
+        SqlStatementAssertions.assertMaxStatements(sqlStatementCounter, maxStatements, () ->
+                mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                        .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.api;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.api.controllers.helpers.PasswordHashingHelper;
+import org.example.api.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingHelperTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingHelper passwordHashingHelper;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        passwordHashingHelper = new PasswordHashingHelper(
+                passwordEncoder,
+                meterRegistry,
+                1,
+                1,
+                10,
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(2)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        passwordHashingHelper.shutdown();
+    }
+
+    @Test
+    void encode_recordsLatency() {
+
+        when(passwordEncoder.encode("password")).thenReturn("hash");
+
+        assertEquals("hash", passwordHashingHelper.encode("password"));
+
+        assertEquals(1, meterRegistry.get("auth.password_hashing.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encode_queueFull_throwsException() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+
+        Thread running = new Thread(() -> passwordHashingHelper.encode("first"));
+        running.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Thread queued = new Thread(() -> passwordHashingHelper.encode("second"));
+        queued.start();
+
+        while (meterRegistry.get("auth.password_hashing.queue.depth").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> passwordHashingHelper.encode("third"));
+
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(1, meterRegistry.get("auth.password_hashing.rejected").counter().count());
+
+        release.countDown();
+        running.join();
+        queued.join();
+
+        verify(passwordEncoder, times(2)).encode(anyString());
+    }
+
+    @Test
+    void encode_notHashedWithinMaxWait_throwsException() throws Exception {
+
+        PasswordHashingHelper shortWaitHelper = new PasswordHashingHelper(
+                passwordEncoder,
+                meterRegistry,
+                1,
+                1,
+                10,
+                Duration.ofMillis(50),
+                Duration.ofSeconds(2)
+        );
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+
+        try {
+            long startedAt = System.nanoTime();
+
+            assertThrows(TooManyRequestsException.class, () -> shortWaitHelper.encode("password"));
+
+            // Поток запроса отпускается по истечении max-wait, а не когда хэш наконец посчитан
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            release.countDown();
+            shortWaitHelper.shutdown();
+        }
+    }
+
+    @Test
+    void needsRehash_comparesStoredCostWithConfigured() {
+
+        assertFalse(passwordHashingHelper.needsRehash("$2a$10$abcdefghijklmnopqrstuv"));
+        assertTrue(passwordHashingHelper.needsRehash("$2a$12$abcdefghijklmnopqrstuv"));
+        assertTrue(passwordHashingHelper.needsRehash("$2b$04$abcdefghijklmnopqrstuv"));
+        assertFalse(passwordHashingHelper.needsRehash("plain"));
+    }
+}
@@ -1,28 +1,41 @@
 package org.example.api;
 
 import org.example.api.controllers.ProjectController;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
 import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.ProjectNameIndex;
+import org.example.api.controllers.helpers.SecondLevelCacheHelper;
+import org.example.api.controllers.helpers.TaskSearchIndex;
 import org.example.api.dto.ProjectDto;
 import org.example.api.exceptions.BadRequestException;
+import org.example.api.exceptions.NotFoundException;
 import org.example.api.mappers.ProjectDtoMapper;
+import org.example.store.entities.BoardChangeType;
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.UserEntity;
 import org.example.store.repositories.ProjectRepository;
+import org.example.utils.PageCursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class ProjectControllerTest {
@@ -36,6 +49,24 @@ public class ProjectControllerTest {
     @Mock
     private ControllerHelper controllerHelper;
 
+    @Mock
+    private AuthorizationHelper authorizationHelper;
+
+    @Mock
+    private ProjectNameIndex projectNameIndex;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private SecondLevelCacheHelper secondLevelCacheHelper;
+
+    @Mock
+    private BoardVersionHelper boardVersionHelper;
+
+    @Mock
+    private BoardEventHub boardEventHub;
+
     @InjectMocks
     private ProjectController projectController;
 
@@ -72,7 +103,9 @@ public class ProjectControllerTest {
         when(projectDtoMapper.createProjectDto(projects.get(1)))
                 .thenReturn(projectsDto.get(1));
 
-        List<ProjectDto> result = projectController.fetchProjects(Optional.empty());
+        List<ProjectDto> result = projectController
+                .fetchProjects(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())
+                .getBody();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -94,36 +127,28 @@ public class ProjectControllerTest {
         UserEntity currentUser = new UserEntity();
         currentUser.setId(1L);
 
-        List<ProjectEntity> projects = List.of(
-                new ProjectEntity(1L, "p1", Instant.now(), Instant.now(), List.of(), currentUser),
-                new ProjectEntity(2L, "p2", Instant.now(), Instant.now(), List.of(), currentUser)
-        );
-
         List<ProjectDto> projectsDto = List.of(
-                new ProjectDto(1L, "p1", Instant.now(), Instant.now()),
-                new ProjectDto(2L, "p2", Instant.now(), Instant.now())
+                new ProjectDto(1L, "p1", Instant.now(), Instant.now())
         );
 
         when(controllerHelper.getCurrentUser())
                 .thenReturn(currentUser);
 
-        when(projectRepository.streamAllByNameStartsWithIgnoreCaseAndAppUser(prefix, currentUser))
-                .thenReturn(Stream.of(projects.getFirst()));
+        when(projectNameIndex.findByPrefix(currentUser, prefix))
+                .thenReturn(projectsDto);
 
-        when(projectDtoMapper.createProjectDto(projects.getFirst()))
-                .thenReturn(projectsDto.getFirst());
-
-        List<ProjectDto> result = projectController.fetchProjects(Optional.of(prefix));
+        List<ProjectDto> result = projectController
+                .fetchProjects(Optional.of(prefix), Optional.empty(), Optional.empty(), Optional.empty())
+                .getBody();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("p1", result.getFirst().getName());
 
-        verify(projectRepository)
-                .streamAllByNameStartsWithIgnoreCaseAndAppUser(prefix, currentUser);
+        verify(projectNameIndex)
+                .findByPrefix(currentUser, prefix);
 
-        verify(projectDtoMapper, times(1))
-                .createProjectDto(any(ProjectEntity.class));
+        verifyNoInteractions(projectRepository);
     }
 
     @Test
@@ -156,7 +181,9 @@ public class ProjectControllerTest {
         when(projectDtoMapper.createProjectDto(projects.get(1)))
                 .thenReturn(projectsDto.get(1));
 
-        List<ProjectDto> result = projectController.fetchProjects(Optional.of(prefix));
+        List<ProjectDto> result = projectController
+                .fetchProjects(Optional.of(prefix), Optional.empty(), Optional.empty(), Optional.empty())
+                .getBody();
 
         assertNotNull(result);
         assertEquals(2, result.size());
@@ -170,6 +197,41 @@ public class ProjectControllerTest {
                 .createProjectDto(any(ProjectEntity.class));
     }
 
+    @Test
+    void fetchProjects_with_limit_returns_next_cursor() {
+
+        UserEntity currentUser = new UserEntity();
+        currentUser.setId(1L);
+
+        List<ProjectEntity> projects = List.of(
+                new ProjectEntity(11L, "p1", Instant.now(), Instant.now(), List.of(), currentUser),
+                new ProjectEntity(12L, "p2", Instant.now(), Instant.now(), List.of(), currentUser)
+        );
+
+        when(controllerHelper.getCurrentUser())
+                .thenReturn(currentUser);
+
+        when(projectRepository.findAllByAppUserAndIdGreaterThanOrderByIdAsc(eq(currentUser), eq(10L), any(Pageable.class)))
+                .thenReturn(projects);
+
+        when(projectDtoMapper.createProjectDto(projects.get(0)))
+                .thenReturn(new ProjectDto(11L, "p1", Instant.now(), Instant.now()));
+
+        ResponseEntity<List<ProjectDto>> response = projectController
+                .fetchProjects(Optional.empty(), Optional.of(10L), Optional.empty(), Optional.of(1));
+
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().size());
+        assertEquals("p1", response.getBody().get(0).getName());
+        assertEquals(
+                PageCursorUtil.encode("11"),
+                response.getHeaders().getFirst(PageCursorUtil.NEXT_CURSOR_HEADER)
+        );
+
+        verify(projectRepository)
+                .findAllByAppUserAndIdGreaterThanOrderByIdAsc(currentUser, 10L, PageRequest.of(0, 2));
+    }
+
     @Test
     void createProject_successful() {
 
@@ -194,7 +256,7 @@ public class ProjectControllerTest {
                 Instant.now()
         );
 
-        when(controllerHelper.getCurrentUser())
+        when(controllerHelper.getCurrentUserOrThrowException())
                 .thenReturn(currentUser);
 
         when(projectRepository.findByNameAndAppUser(name, currentUser))
@@ -216,6 +278,12 @@ public class ProjectControllerTest {
 
         verify(projectRepository)
                 .saveAndFlush(any(ProjectEntity.class));
+
+        verify(boardVersionHelper)
+                .create(project.getId());
+
+        verify(projectNameIndex)
+                .invalidateAfterCommit(currentUser.getId());
     }
 
     @Test
@@ -229,6 +297,20 @@ public class ProjectControllerTest {
         assertEquals("Name cannot be empty", exception.getMessage());
     }
 
+    @Test
+    void createProject_userDeleted_throwsException() {
+
+        when(controllerHelper.getCurrentUserOrThrowException())
+                .thenThrow(new NotFoundException("User not found"));
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> projectController.createProject("testProject"));
+
+        assertEquals("User not found", exception.getMessage());
+
+        verifyNoInteractions(projectRepository);
+    }
+
     @Test
     void createProject_projectAlreadyExists_throwsException() {
 
@@ -246,7 +328,7 @@ public class ProjectControllerTest {
                 currentUser
         );
 
-        when(controllerHelper.getCurrentUser())
+        when(controllerHelper.getCurrentUserOrThrowException())
                 .thenReturn(currentUser);
 
         when(projectRepository.findByNameAndAppUser(name, currentUser))
@@ -258,7 +340,7 @@ public class ProjectControllerTest {
         assertEquals("Project \"testProject\" already exists", exception.getMessage());
 
         verify(controllerHelper)
-                .getCurrentUser();
+                .getCurrentUserOrThrowException();
 
         verify(projectRepository)
                 .findByNameAndAppUser(name, currentUser);
@@ -316,6 +398,9 @@ public class ProjectControllerTest {
         verify(controllerHelper)
                 .getCurrentUser();
 
+        verify(authorizationHelper)
+                .checkProjectOwnerOrThrowException(projectId, "You do not have permission to edit this project.");
+
         verify(controllerHelper)
                 .getProjectOrThrowException(projectId);
 
@@ -330,30 +415,22 @@ public class ProjectControllerTest {
 
         verify(projectDtoMapper)
                 .createProjectDto(project);
+
+        verify(boardVersionHelper)
+                .recordChange(projectId, BoardChangeType.PROJECT_UPDATED);
+
+        verify(projectNameIndex)
+                .invalidateAfterCommit(currentUser.getId());
     }
 
     @Test
     void deleteProject_successful() {
 
         Long projectId = 1L;
+        Long currentUserId = 1L;
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
-        ProjectEntity project = new ProjectEntity(
-                projectId,
-                "name",
-                Instant.now(),
-                Instant.now(),
-                List.of(),
-                currentUser
-        );
-
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
-
-        when(controllerHelper.getProjectOrThrowException(projectId))
-                .thenReturn(project);
+        when(controllerHelper.getCurrentUserId())
+                .thenReturn(currentUserId);
 
         doNothing().when(projectRepository).deleteById(projectId);
 
@@ -363,54 +440,47 @@ public class ProjectControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Project with id - \"1\" was successfully deleted", response.getBody());
 
-        verify(controllerHelper)
-                .getCurrentUser();
+        verify(authorizationHelper)
+                .checkProjectOwnerOrThrowException(projectId, "You do not have permission to delete this project.");
 
-        verify(controllerHelper)
-                .getProjectOrThrowException(projectId);
+        verify(controllerHelper, never())
+                .getProjectOrThrowException(anyLong());
 
         verify(projectRepository)
                 .deleteById(projectId);
-    }
 
-    @Test
-    void deleteProject_unauthorizedUser_throwsException() {
+        verify(boardVersionHelper)
+                .delete(projectId);
 
-        Long projectId = 1L;
+        verify(boardEventHub)
+                .closeAfterCommit(projectId);
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
+        verify(projectNameIndex)
+                .invalidateAfterCommit(currentUserId);
 
-        UserEntity anotherUser = new UserEntity();
-        anotherUser.setId(2L);
+        verify(taskSearchIndex)
+                .removeProjectAfterCommit(currentUserId, projectId);
 
-        ProjectEntity project = new ProjectEntity(
-                projectId,
-                "TestProject",
-                Instant.now(),
-                Instant.now(),
-                List.of(),
-                anotherUser
-        );
+        verify(secondLevelCacheHelper)
+                .evictUserProjects(currentUserId);
+    }
 
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
+    @Test
+    void deleteProject_unauthorizedUser_throwsException() {
 
-        when(controllerHelper.getProjectOrThrowException(projectId))
-                .thenReturn(project);
+        Long projectId = 1L;
+
+        doThrow(new BadRequestException("You do not have permission to delete this project."))
+                .when(authorizationHelper)
+                .checkProjectOwnerOrThrowException(projectId, "You do not have permission to delete this project.");
 
         BadRequestException exception = assertThrows(BadRequestException.class,
                 () -> projectController.deleteProject(projectId));
 
         assertEquals("You do not have permission to delete this project.", exception.getMessage());
 
-        verify(controllerHelper)
-                .getCurrentUser();
-
-        verify(controllerHelper)
-                .getProjectOrThrowException(projectId);
-
-        verify(projectRepository, times(0));
+        verifyNoInteractions(
+                projectRepository, projectNameIndex, taskSearchIndex, secondLevelCacheHelper, boardVersionHelper);
     }
 
     @Test
@@ -418,23 +488,15 @@ public class ProjectControllerTest {
 
         Long projectId = 1L;
 
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(new UserEntity());
-
-        when(controllerHelper.getProjectOrThrowException(projectId))
-                .thenThrow(new BadRequestException("Project not found"));
+        doThrow(new NotFoundException("Project with \"1\" doesn't exist."))
+                .when(authorizationHelper)
+                .checkProjectOwnerOrThrowException(eq(projectId), anyString());
 
-        BadRequestException exception = assertThrows(BadRequestException.class,
+        NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> projectController.deleteProject(projectId));
 
-        assertEquals("Project not found", exception.getMessage());
-
-        verify(controllerHelper)
-                .getCurrentUser();
-
-        verify(controllerHelper)
-                .getProjectOrThrowException(projectId);
+        assertEquals("Project with \"1\" doesn't exist.", exception.getMessage());
 
-        verify(projectRepository, times(0));
+        verifyNoInteractions(projectRepository);
     }
 }
@@ -0,0 +1,298 @@
+package org.example.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.api.controllers.ProjectExportController;
+import org.example.api.dto.ProjectExportLineDto;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProjectExportControllerTest {
+
+    private static final int TASK_STATES_COUNT = 3;
+    private static final int TASKS_PER_TASK_STATE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @SpyBean
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    private String foreignToken;
+
+    private ProjectEntity project;
+
+    private final List<TaskStateEntity> taskStates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = saveUser();
+            UserEntity foreignUser = saveUser();
+
+            project = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("project-" + UUID.randomUUID())
+                            .appUser(user)
+                            .build()
+            );
+
+            projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 0));
+
+            TaskStateEntity previous = null;
+
+            for (int i = 0; i < TASK_STATES_COUNT; i++) {
+
+                TaskStateEntity taskState = taskStateRepository.save(
+                        TaskStateEntity.builder()
+                                .name("state-" + i)
+                                .ordinal(i)
+                                .project(project)
+                                .leftTaskState(previous)
+                                .build()
+                );
+
+                if (previous != null) {
+                    previous.setRightTaskState(taskState);
+                }
+
+                // Задачи сохраняются в обратном порядке: выгрузка должна сортировать их по position
+                for (int j = TASKS_PER_TASK_STATE - 1; j >= 0; j--) {
+                    taskRepository.save(
+                            TaskEntity.builder()
+                                    .name("task-" + i + "-" + j)
+                                    .description("description")
+                                    .position(j)
+                                    .taskState(taskState)
+                                    .build()
+                    );
+                }
+
+                taskStates.add(taskState);
+                previous = taskState;
+            }
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+            foreignToken = jwtUtil.generateToken(foreignUser.getUsername(), foreignUser.getId());
+        });
+    }
+
+    @Test
+    void exportProject_writesProjectTaskStatesAndTasksAsLines() throws Exception {
+
+        String body = mockMvc.perform(get(ProjectExportController.EXPORT_PROJECT, project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(body.endsWith("\n"));
+
+        List<JsonNode> lines = new ArrayList<>();
+
+        for (String line : body.split("\n")) {
+            lines.add(new ObjectMapper().readTree(line));
+        }
+
+        assertEquals(1 + TASK_STATES_COUNT + TASK_STATES_COUNT * TASKS_PER_TASK_STATE, lines.size());
+
+        assertEquals(ProjectExportLineDto.PROJECT, lines.get(0).get("type").asText());
+        assertEquals(project.getId(), lines.get(0).get("id").asLong());
+
+        for (int i = 0; i < TASK_STATES_COUNT; i++) {
+
+            JsonNode taskStateLine = lines.get(1 + i);
+
+            assertEquals(ProjectExportLineDto.TASK_STATE, taskStateLine.get("type").asText());
+            assertEquals(taskStates.get(i).getId(), taskStateLine.get("id").asLong());
+            assertEquals(i, taskStateLine.get("position").asInt());
+            // Пустые поля не выводятся
+            assertEquals(i == 0, !taskStateLine.has("leftTaskStateId"));
+            assertEquals(i == TASK_STATES_COUNT - 1, !taskStateLine.has("rightTaskStateId"));
+        }
+
+        int taskLine = 1 + TASK_STATES_COUNT;
+
+        for (int i = 0; i < TASK_STATES_COUNT; i++) {
+            for (int j = 0; j < TASKS_PER_TASK_STATE; j++) {
+
+                JsonNode line = lines.get(taskLine++);
+
+                assertEquals(ProjectExportLineDto.TASK, line.get("type").asText());
+                assertEquals("task-" + i + "-" + j, line.get("name").asText());
+                assertEquals(j, line.get("position").asInt());
+                assertEquals(taskStates.get(i).getId(), line.get("taskStateId").asLong());
+            }
+        }
+    }
+
+    @Test
+    void exportProject_equalOrdinals_keepsTasksGroupedByTaskState() throws Exception {
+
+        // Одинаковые ordinal возможны, пока TaskStateOrdinalBackfillJob не починил проект
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("update TaskStateEntity ts set ts.ordinal = 0 where ts.project.id = :projectId")
+                .setParameter("projectId", project.getId())
+                .executeUpdate());
+
+        String body = mockMvc.perform(get(ProjectExportController.EXPORT_PROJECT, project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        int taskLine = 1 + TASK_STATES_COUNT;
+
+        for (int i = 0; i < TASK_STATES_COUNT; i++) {
+
+            assertEquals(taskStates.get(i).getId(), new ObjectMapper().readTree(lines[1 + i]).get("id").asLong());
+
+            for (int j = 0; j < TASKS_PER_TASK_STATE; j++) {
+
+                JsonNode line = new ObjectMapper().readTree(lines[taskLine++]);
+
+                assertEquals(taskStates.get(i).getId(), line.get("taskStateId").asLong());
+                assertEquals(j, line.get("position").asInt());
+            }
+        }
+    }
+
+    @Test
+    void exportProject_detachesTasksAfterWritingThem() throws Exception {
+
+        AtomicInteger maxManagedTasks = new AtomicInteger();
+
+        doAnswer(invocation -> {
+
+            ProjectExportLineDto line = invocation.getArgument(0);
+
+            if (ProjectExportLineDto.TASK.equals(line.getType())) {
+                maxManagedTasks.accumulateAndGet(managedTasksCount(), Math::max);
+            }
+
+            return invocation.callRealMethod();
+        }).when(objectMapper).writeValueAsBytes(any(ProjectExportLineDto.class));
+
+        mockMvc.perform(get(ProjectExportController.EXPORT_PROJECT, project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // В persistence context только задача, которая пишется сейчас
+        assertEquals(1, maxManagedTasks.get());
+    }
+
+    @Test
+    void exportProject_foreignProject_isRejected() throws Exception {
+
+        mockMvc.perform(get(ProjectExportController.EXPORT_PROJECT, project.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + foreignToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportProject_missingProject_isNotFound() throws Exception {
+
+        mockMvc.perform(get(ProjectExportController.EXPORT_PROJECT, Long.MAX_VALUE)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    private int managedTasksCount() {
+
+        int count = 0;
+
+        // Запрос выполняется в потоке теста, поэтому общий EntityManager здесь - EntityManager выгрузки
+        for (var entry : entityManager
+                .unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .reentrantSafeEntityEntries()) {
+
+            if (entry.getKey() instanceof TaskEntity) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private UserEntity saveUser() {
+
+        return userRepository.save(
+                UserEntity.builder()
+                        .username("user-" + UUID.randomUUID())
+                        .password("password")
+                        .build()
+        );
+    }
+}
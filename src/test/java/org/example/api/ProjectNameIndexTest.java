@@ -0,0 +1,97 @@
+package org.example.api;
+
+import org.example.api.controllers.helpers.ProjectNameIndex;
+import org.example.api.dto.ProjectDto;
+import org.example.api.mappers.ProjectDtoMapper;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProjectNameIndexTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    private ProjectNameIndex projectNameIndex;
+
+    private UserEntity currentUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        projectNameIndex = new ProjectNameIndex(projectRepository, new ProjectDtoMapper());
+
+        currentUser = new UserEntity();
+        currentUser.setId(1L);
+    }
+
+    @Test
+    void findByPrefix_ignoresCase_and_sortsByName() {
+
+        when(projectRepository.streamAllByAppUser(currentUser))
+                .thenAnswer(invocation -> projects("Backend", "beta", "Alpha", "board").stream());
+
+        List<ProjectDto> result = projectNameIndex.findByPrefix(currentUser, "B");
+
+        assertEquals(List.of("Backend", "beta", "board"), result.stream().map(ProjectDto::getName).toList());
+        assertTrue(projectNameIndex.findByPrefix(currentUser, "c").isEmpty());
+        assertEquals(1, projectNameIndex.findByPrefix(currentUser, "alp").size());
+
+        verify(projectRepository, times(1))
+                .streamAllByAppUser(currentUser);
+    }
+
+    @Test
+    void invalidate_reloadsProjects() {
+
+        when(projectRepository.streamAllByAppUser(currentUser))
+                .thenAnswer(invocation -> projects("p1").stream())
+                .thenAnswer(invocation -> projects("p1", "p2").stream());
+
+        assertEquals(1, projectNameIndex.findByPrefix(currentUser, "p").size());
+
+        projectNameIndex.invalidateAfterCommit(currentUser.getId());
+
+        assertEquals(2, projectNameIndex.findByPrefix(currentUser, "p").size());
+
+        verify(projectRepository, times(2))
+                .streamAllByAppUser(currentUser);
+    }
+
+    @Test
+    void invalidate_duringLoad_doesNotCacheStaleProjects() {
+
+        when(projectRepository.streamAllByAppUser(currentUser))
+                .thenAnswer(invocation -> {
+                    projectNameIndex.invalidate(currentUser.getId());
+                    return projects("p1").stream();
+                })
+                .thenAnswer(invocation -> projects("p1", "p2").stream());
+
+        assertEquals(1, projectNameIndex.findByPrefix(currentUser, "p").size());
+        assertEquals(2, projectNameIndex.findByPrefix(currentUser, "p").size());
+    }
+
+    private List<ProjectEntity> projects(String... names) {
+
+        List<ProjectEntity> projects = new ArrayList<>();
+
+        for (int i = 0; i < names.length; i++) {
+            projects.add(new ProjectEntity((long) i + 1, names[i], Instant.now(), Instant.now(), List.of(), currentUser));
+        }
+
+        return projects;
+    }
+}
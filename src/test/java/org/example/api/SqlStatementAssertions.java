@@ -0,0 +1,48 @@
+package org.example.api;
+
+import org.example.config.RequestSqlStatistics;
+import org.example.config.SqlStatementCounter;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+SqlStatementAssertions:
+Измеряет SQL-запросы, выполненные в текущем потоке во время action (например, mockMvc.perform),
+и проверяет верхнюю границу. В отличие от глобальной статистики Hibernate не учитывает запросы
+фоновых задач, идущих параллельно с тестом.
+ */
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static RequestSqlStatistics assertMaxStatements(
+            SqlStatementCounter sqlStatementCounter,
+            long maxStatements,
+            Executable action
+    ) throws Throwable {
+
+        sqlStatementCounter.start();
+
+        RequestSqlStatistics statistics;
+
+        try {
+            action.execute();
+        } finally {
+            statistics = sqlStatementCounter.stop();
+        }
+
+        assertTrue(
+                statistics.getStatements() <= maxStatements,
+                String.format(
+                        "Expected at most %d SQL statements, but was %d: %s",
+                        maxStatements,
+                        statistics.getStatements(),
+                        statistics.getRepeatedShapes(1)
+                )
+        );
+
+        return statistics;
+    }
+}
@@ -1,15 +1,25 @@
 package org.example.api;
 
 import org.example.api.controllers.TaskController;
+import org.example.api.controllers.helpers.AuthorizationHelper;
+import org.example.api.controllers.helpers.BoardEventHub;
+import org.example.api.controllers.helpers.BoardVersionHelper;
 import org.example.api.controllers.helpers.ControllerHelper;
+import org.example.api.controllers.helpers.TaskRankHelper;
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.api.dto.BoardEventType;
 import org.example.api.dto.TaskDto;
+import org.example.api.dto.TaskSearchResultDto;
 import org.example.api.exceptions.BadRequestException;
 import org.example.api.mappers.TaskDtoMapper;
+import org.example.store.entities.BoardChangeType;
 import org.example.store.entities.ProjectEntity;
 import org.example.store.entities.TaskEntity;
 import org.example.store.entities.TaskStateEntity;
 import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectOwnershipProjection;
 import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -22,9 +32,13 @@ import org.springframework.http.ResponseEntity;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class TaskControllerTest {
@@ -35,9 +49,27 @@ public class TaskControllerTest {
     @Mock
     private TaskDtoMapper taskDtoMapper;
 
+    @Mock
+    private TaskStateRepository taskStateRepository;
+
     @Mock
     private ControllerHelper controllerHelper;
 
+    @Mock
+    private AuthorizationHelper authorizationHelper;
+
+    @Mock
+    private TaskRankHelper taskRankHelper;
+
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private BoardVersionHelper boardVersionHelper;
+
+    @Mock
+    private BoardEventHub boardEventHub;
+
     @InjectMocks
     private TaskController taskController;
 
@@ -51,48 +83,39 @@ public class TaskControllerTest {
 
         Long taskStateId = 1L;
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
         TaskStateEntity taskState = new TaskStateEntity();
         taskState.setId(taskStateId);
-        taskState.setProject(
-                new ProjectEntity(
-                        1L,
-                        "TestProject",
-                        Instant.now(),
-                        Instant.now(),
-                        List.of(),
-                        currentUser
-                ));
-        taskState.setTasks(List.of(
-                new TaskEntity(1L, "Task1", "Desc1", 0, taskState),
-                new TaskEntity(2L, "Task2", "Desc2", 1, taskState)
-        ));
-
-        when(controllerHelper.getCurrentUser()).
-                thenReturn(currentUser);
-
-        when(controllerHelper.getTaskStateIdOrThrowException(taskStateId)).
-                thenReturn(taskState);
+
+        List<TaskEntity> tasks = List.of(
+                new TaskEntity(1L, "Task1", "Desc1", 0, null, taskState),
+                new TaskEntity(2L, "Task2", "Desc2", 1, null, taskState)
+        );
+
+        when(authorizationHelper.checkTaskStateOwnerOrThrowException(taskStateId))
+                .thenReturn(ownership(1L, 1L));
+
+        when(taskRepository.findAllByTaskStateIdOrderByPositionAsc(taskStateId))
+                .thenReturn(tasks);
 
         when(taskDtoMapper.createTaskDto(any(TaskEntity.class))).thenAnswer(invocation -> {
             TaskEntity task = invocation.getArgument(0);
             return new TaskDto(task.getId(), task.getName(), task.getPosition(), task.getDescription());
         });
 
-        List<TaskDto> result = taskController.getTasks(taskStateId);
+        List<TaskDto> result = taskController
+                .getTasks(taskStateId, Optional.empty(), Optional.empty(), Optional.empty())
+                .getBody();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("Task1", result.get(0).getName());
         assertEquals("Task2", result.get(1).getName());
 
-        verify(controllerHelper)
-                .getCurrentUser();
+        verify(authorizationHelper)
+                .checkTaskStateOwnerOrThrowException(taskStateId);
 
-        verify(controllerHelper)
-                .getTaskStateIdOrThrowException(taskStateId);
+        verify(taskRepository)
+                .findAllByTaskStateIdOrderByPositionAsc(taskStateId);
     }
 
     @Test
@@ -100,40 +123,18 @@ public class TaskControllerTest {
 
         Long taskStateId = 1L;
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
-        UserEntity anotherUser = new UserEntity();
-        anotherUser.setId(2L);
-
-        TaskStateEntity taskState = new TaskStateEntity();
-        taskState.setId(taskStateId);
-        taskState.setProject(
-                new ProjectEntity(
-                        1L,
-                        "TestProject",
-                        Instant.now(),
-                        Instant.now(),
-                        List.of(),
-                        anotherUser
-                ));
-
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
-
-        when(controllerHelper.getTaskStateIdOrThrowException(taskStateId))
-                .thenReturn(taskState);
+        when(authorizationHelper.checkTaskStateOwnerOrThrowException(taskStateId))
+                .thenThrow(new BadRequestException(AuthorizationHelper.ACCESS_DENIED));
 
         BadRequestException exception = assertThrows(BadRequestException.class,
-                () -> taskController.getTasks(taskStateId));
+                () -> taskController.getTasks(taskStateId, Optional.empty(), Optional.empty(), Optional.empty()));
 
         assertEquals("You do not have permission to access this project.", exception.getMessage());
 
-        verify(controllerHelper)
-                .getCurrentUser();
+        verify(authorizationHelper)
+                .checkTaskStateOwnerOrThrowException(taskStateId);
 
-        verify(controllerHelper)
-                .getTaskStateIdOrThrowException(taskStateId);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -144,28 +145,15 @@ public class TaskControllerTest {
         String taskName = "New Task";
         String description = "Task description";
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
         TaskStateEntity taskState = new TaskStateEntity();
         taskState.setId(taskStateId);
-        taskState.setTasks(new ArrayList<>());
-        taskState.setProject(
-                new ProjectEntity(
-                        1L,
-                        "TestProject",
-                        Instant.now(),
-                        Instant.now(),
-                        List.of(),
-                        currentUser
-                ));
-
-        TaskEntity savedTask = new TaskEntity(1L, taskName, description, 0, taskState);
-
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
-
-        when(controllerHelper.getTaskStateIdOrThrowException(taskStateId))
+
+        TaskEntity savedTask = new TaskEntity(1L, taskName, description, 0, null, taskState);
+
+        when(authorizationHelper.checkTaskStateOwnerOrThrowException(taskStateId))
+                .thenReturn(ownership(1L, 1L));
+
+        when(taskStateRepository.getReferenceById(taskStateId))
                 .thenReturn(taskState);
 
         when(taskRepository.saveAndFlush(any(TaskEntity.class)))
@@ -181,10 +169,22 @@ public class TaskControllerTest {
         assertEquals(description, result.getDescription());
 
         verify(taskRepository)
-                .saveAndFlush(any(TaskEntity.class));
+                .saveAndFlush(argThat(task -> task.getTaskState() == taskState && task.getPosition() == 0));
 
         verify(taskDtoMapper)
                 .createTaskDto(savedTask);
+
+        verify(boardVersionHelper)
+                .recordChange(1L, BoardChangeType.TASK_UPSERTED, savedTask.getId());
+
+        verify(taskSearchIndex)
+                .indexAfterCommit(1L, 1L, savedTask);
+
+        verify(boardEventHub)
+                .publishAfterCommit(eq(1L), argThat(event ->
+                        event.getType() == BoardEventType.TASK_CREATED
+                                && taskStateId.equals(event.getTaskStateId())
+                                && event.getTask() == result));
     }
 
     @Test
@@ -199,7 +199,7 @@ public class TaskControllerTest {
 
         assertEquals("Task's name can't be empty.", exception.getMessage());
 
-        verifyZeroInteractions(taskRepository);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -214,7 +214,7 @@ public class TaskControllerTest {
 
         assertEquals("Task's description can't be empty.", exception.getMessage());
 
-        verifyZeroInteractions(taskRepository);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -224,30 +224,17 @@ public class TaskControllerTest {
         String newName = "Updated Task";
         String newDescription = "Updated Description";
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
-        TaskStateEntity taskState = new TaskStateEntity();
-        taskState.setProject(
-                new ProjectEntity(
-                        1L,
-                        "TestProject",
-                        Instant.now(),
-                        Instant.now(),
-                        List.of(),
-                        currentUser
-                ));
-
         TaskEntity taskToUpdate = new TaskEntity(
                 taskId,
                 "Old Task",
                 "Old Description",
                 0,
-                taskState
+                null,
+                new TaskStateEntity()
         );
 
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
+        when(authorizationHelper.checkTaskOwnerOrThrowException(taskId))
+                .thenReturn(ownership(1L, 1L));
 
         when(controllerHelper.getTaskIdOrThrowException(taskId))
                 .thenReturn(taskToUpdate);
@@ -266,35 +253,47 @@ public class TaskControllerTest {
 
         verify(taskRepository)
                 .saveAndFlush(taskToUpdate);
+
+        verify(taskSearchIndex)
+                .indexAfterCommit(1L, 1L, taskToUpdate);
     }
 
     @Test
-    void deleteTask_successful() {
+    void updateTask_unauthorizedUser_throwsException() {
+
         Long taskId = 1L;
 
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
+        when(authorizationHelper.checkTaskOwnerOrThrowException(taskId))
+                .thenThrow(new BadRequestException(AuthorizationHelper.ACCESS_DENIED));
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> taskController.updateTask(taskId, "name", "description"));
+
+        assertEquals("You do not have permission to access this project.", exception.getMessage());
+
+        verify(controllerHelper, never())
+                .getTaskIdOrThrowException(anyLong());
+
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void deleteTask_successful() {
+        Long taskId = 1L;
 
         TaskStateEntity taskState = new TaskStateEntity();
-        taskState.setTasks(new ArrayList<>());
-        taskState.setProject(new ProjectEntity(
-                1L,
-                "TestProject",
-                Instant.now(),
-                Instant.now(),
-                List.of(),
-                currentUser
-        ));
+        taskState.setId(1L);
 
         TaskEntity taskToDelete = new TaskEntity(
                 taskId,
                 "Task to delete",
                 "Description",
                 0,
+                null,
                 taskState);
 
-        when(controllerHelper.getCurrentUser())
-                .thenReturn(currentUser);
+        when(authorizationHelper.checkTaskOwnerOrThrowException(taskId))
+                .thenReturn(ownership(1L, 1L));
 
         when(controllerHelper.getTaskIdOrThrowException(taskId))
                 .thenReturn(taskToDelete);
@@ -306,33 +305,32 @@ public class TaskControllerTest {
         assertEquals("Task with id - \"1\" was successfully deleted", response.getBody());
 
         verify(taskRepository).delete(taskToDelete);
+
+        verify(taskRepository).shiftPositionsLeft(taskState.getId(), 0, Integer.MAX_VALUE);
+
+        verify(boardVersionHelper).recordChange(1L, BoardChangeType.TASK_DELETED, taskId);
+
+        verify(taskSearchIndex).removeAfterCommit(1L, taskId);
     }
 
     @Test
     void changeTaskPosition_successful() {
 
         Long taskId = 1L;
-        int newPosition = 1;
-
-        UserEntity currentUser = new UserEntity();
-        currentUser.setId(1L);
-
-        ProjectEntity project = new ProjectEntity();
-        project.setAppUser(currentUser);
+        Long taskStateId = 1L;
+        int newPosition = 2;
 
         TaskStateEntity taskState = new TaskStateEntity();
-        taskState.setProject(project);
-        taskState.setTasks(new ArrayList<>());
-
-        TaskEntity task1 = new TaskEntity(1L, "Task1", "Description1", 0, taskState);
-        TaskEntity task2 = new TaskEntity(2L, "Task2", "Description2", 1, taskState);
-        TaskEntity task3 = new TaskEntity(3L, "Task3", "Description3", 2, taskState);
+        taskState.setId(taskStateId);
 
-        taskState.setTasks(new ArrayList<>(List.of(task1, task2, task3)));
+        TaskEntity task1 = new TaskEntity(1L, "Task1", "Description1", 0, null, taskState);
 
-        when(controllerHelper.getCurrentUser()).thenReturn(currentUser);
+        when(authorizationHelper.checkTaskOwnerOrThrowException(taskId)).thenReturn(ownership(1L, 1L));
         when(controllerHelper.getTaskIdOrThrowException(taskId)).thenReturn(task1);
 
+        when(taskRepository.countByTaskStateId(taskStateId))
+                .thenReturn(3L);
+
         when(taskRepository.saveAndFlush(any(TaskEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -343,11 +341,111 @@ public class TaskControllerTest {
 
         assertNotNull(result);
         assertEquals(newPosition, task1.getPosition());
-        assertEquals(0, taskState.getTasks().get(0).getPosition());
-        assertEquals(1, taskState.getTasks().get(1).getPosition());
-        assertEquals(2, taskState.getTasks().get(2).getPosition());
 
-        verify(taskRepository, times(3))
+        verify(taskRepository)
+                .shiftPositionsLeft(taskStateId, 0, newPosition);
+
+        verify(taskRepository, never())
+                .shiftPositionsRight(anyLong(), anyInt(), anyInt());
+
+        verify(taskRepository, times(1))
                 .saveAndFlush(any(TaskEntity.class));
+
+        verify(boardVersionHelper)
+                .recordChange(1L, BoardChangeType.TASK_UPSERTED, taskId);
+    }
+
+    @Test
+    void changeTaskPosition_invalidPosition_throwsException() {
+
+        Long taskId = 1L;
+        Long taskStateId = 1L;
+
+        TaskStateEntity taskState = new TaskStateEntity();
+        taskState.setId(taskStateId);
+
+        TaskEntity task = new TaskEntity(taskId, "Task1", "Description1", 0, null, taskState);
+
+        when(authorizationHelper.checkTaskOwnerOrThrowException(taskId)).thenReturn(ownership(1L, 1L));
+        when(controllerHelper.getTaskIdOrThrowException(taskId)).thenReturn(task);
+
+        when(taskRepository.countByTaskStateId(taskStateId))
+                .thenReturn(3L);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> taskController.changeTaskPosition(taskId, 3));
+
+        assertEquals("Invalid position value.", exception.getMessage());
+
+        verify(taskRepository, never())
+                .saveAndFlush(any(TaskEntity.class));
+    }
+
+    @Test
+    void searchTasks_returnsOwnTasksInRelevanceOrder() {
+
+        UserEntity currentUser = new UserEntity();
+        currentUser.setId(1L);
+
+        UserEntity anotherUser = new UserEntity();
+        anotherUser.setId(2L);
+
+        TaskStateEntity taskState = new TaskStateEntity();
+        taskState.setId(1L);
+        taskState.setProject(new ProjectEntity(1L, "TestProject", Instant.now(), Instant.now(), List.of(), currentUser));
+
+        TaskStateEntity anotherTaskState = new TaskStateEntity();
+        anotherTaskState.setId(2L);
+        anotherTaskState.setProject(new ProjectEntity(2L, "Another", Instant.now(), Instant.now(), List.of(), anotherUser));
+
+        TaskEntity firstTask = new TaskEntity(1L, "Fix login", "Desc1", 0, null, taskState);
+        TaskEntity secondTask = new TaskEntity(2L, "Login page", "Desc2", 1, null, taskState);
+        TaskEntity foreignTask = new TaskEntity(3L, "Login", "Desc3", 0, null, anotherTaskState);
+
+        when(controllerHelper.getCurrentUserId())
+                .thenReturn(currentUser.getId());
+
+        when(taskSearchIndex.search(1L, "log", null, 20))
+                .thenReturn(List.of(2L, 3L, 1L));
+
+        when(taskRepository.findAllWithProjectByIdIn(List.of(2L, 3L, 1L)))
+                .thenReturn(List.of(firstTask, secondTask, foreignTask));
+
+        when(taskDtoMapper.createTaskSearchResultDto(any(TaskEntity.class)))
+                .thenAnswer(invocation -> {
+                    TaskEntity task = invocation.getArgument(0);
+                    return new TaskSearchResultDto(task.getId(), task.getName(), task.getDescription(), 1L, 1L);
+                });
+
+        List<TaskSearchResultDto> result = taskController.searchTasks("log", Optional.empty(), Optional.empty());
+
+        assertEquals(List.of(2L, 1L), result.stream().map(TaskSearchResultDto::getId).toList());
+    }
+
+    @Test
+    void searchTasks_blankQuery_throwsException() {
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> taskController.searchTasks(" ", Optional.empty(), Optional.empty()));
+
+        assertEquals("Search query can't be empty.", exception.getMessage());
+
+        verifyNoInteractions(taskSearchIndex);
+    }
+
+    private static ProjectOwnershipProjection ownership(Long projectId, Long ownerId) {
+
+        return new ProjectOwnershipProjection() {
+
+            @Override
+            public Long getProjectId() {
+                return projectId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
     }
 }
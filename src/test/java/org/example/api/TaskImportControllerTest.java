@@ -0,0 +1,301 @@
+package org.example.api;
+
+import org.example.api.controllers.TaskImportController;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectOwnershipProjection;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskImportControllerTest {
+
+    // Колонки с таким id нет: как если бы её удалили между проверкой владельца и вставкой пачки
+    private static final Long DELETED_TASK_STATE_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @SpyBean
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    private ProjectEntity project;
+
+    private TaskStateEntity taskState;
+
+    private TaskStateEntity foreignTaskState;
+
+    @BeforeEach
+    void setUp() {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = saveUser();
+
+            project = saveProject(user);
+            taskState = saveTaskState(project);
+
+            taskRepository.save(
+                    TaskEntity.builder()
+                            .name("existing task")
+                            .description("description")
+                            .position(0)
+                            .taskState(taskState)
+                            .build()
+            );
+
+            foreignTaskState = saveTaskState(saveProject(saveUser()));
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        });
+    }
+
+    @Test
+    void importJson_appendsTasksAndReportsInvalidRows() throws Exception {
+
+        String body = """
+                [
+                  {"task_state_id": %d, "task_name": "first", "description": "first description"},
+                  {"task_state_id": %d, "task_name": "", "description": "no name"},
+                  {"task_state_id": %d, "task_name": "second", "description": "second description"}
+                ]
+                """.formatted(taskState.getId(), taskState.getId(), taskState.getId());
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].error").value("Task's name can't be empty."));
+
+        assertEquals(
+                List.of("existing task", "first", "second"),
+                taskNames(taskState)
+        );
+        assertEquals(1, projectVersion());
+    }
+
+    @Test
+    void importCsv_parsesQuotedColumns() throws Exception {
+
+        String body = """
+                task_state_id,task_name,description
+                %d,"task, with comma","say ""hello\"\""
+                %d,plain task,plain description
+                """.formatted(taskState.getId(), taskState.getId());
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType("text/csv")
+                        .content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(0));
+
+        List<TaskEntity> tasks = taskRepository.findAllByTaskStateIdOrderByPositionAsc(taskState.getId());
+
+        assertEquals("task, with comma", tasks.get(1).getName());
+        assertEquals("say \"hello\"", tasks.get(1).getDescription());
+        assertEquals(2, tasks.get(2).getPosition());
+    }
+
+    @Test
+    void importCsv_wrongHeader_importsNothing() throws Exception {
+
+        String body = """
+                task_name,task_state_id,description
+                first,%d,first description
+                """.formatted(taskState.getId());
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType("text/csv")
+                        .content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(0))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(0))
+                .andExpect(jsonPath("$.errors[0].error").value("Expected header task_state_id,task_name,description."));
+
+        assertEquals(List.of("existing task"), taskNames(taskState));
+        assertEquals(0, projectVersion());
+    }
+
+    @Test
+    void importJson_foreignTaskState_rejectsRows() throws Exception {
+
+        String body = """
+                [
+                  {"task_state_id": %d, "task_name": "foreign", "description": "foreign description"},
+                  {"task_state_id": %d, "task_name": "own", "description": "own description"}
+                ]
+                """.formatted(foreignTaskState.getId(), taskState.getId());
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].error").value("You do not have permission to access this project."));
+
+        assertEquals(List.of(), taskNames(foreignTaskState));
+        assertEquals(List.of("existing task", "own"), taskNames(taskState));
+    }
+
+    @Test
+    void importJson_failingChunk_retriesRowByRow() throws Exception {
+
+        doReturn(Optional.of(ownership(project)))
+                .when(taskStateRepository)
+                .findOwnershipById(DELETED_TASK_STATE_ID);
+
+        String body = """
+                [
+                  {"task_state_id": %d, "task_name": "first", "description": "first description"},
+                  {"task_state_id": %d, "task_name": "lost", "description": "lost description"},
+                  {"task_state_id": %d, "task_name": "second", "description": "second description"}
+                ]
+                """.formatted(taskState.getId(), DELETED_TASK_STATE_ID, taskState.getId());
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        // Позиции идут подряд: неудачная пачка и неудачная строка не оставили дыр
+        assertEquals(
+                List.of(0, 1, 2),
+                taskRepository.findAllByTaskStateIdOrderByPositionAsc(taskState.getId())
+                        .stream()
+                        .map(TaskEntity::getPosition)
+                        .toList()
+        );
+        assertEquals(1, projectVersion());
+    }
+
+    private UserEntity saveUser() {
+
+        return userRepository.save(
+                UserEntity.builder()
+                        .username("user-" + UUID.randomUUID())
+                        .password("password")
+                        .build()
+        );
+    }
+
+    private ProjectEntity saveProject(UserEntity user) {
+
+        ProjectEntity savedProject = projectRepository.save(
+                ProjectEntity.builder()
+                        .name("project-" + UUID.randomUUID())
+                        .appUser(user)
+                        .build()
+        );
+
+        projectVersionRepository.save(new ProjectVersionEntity(savedProject.getId(), 0));
+
+        return savedProject;
+    }
+
+    private TaskStateEntity saveTaskState(ProjectEntity taskStateProject) {
+
+        return taskStateRepository.save(
+                TaskStateEntity.builder()
+                        .name("state")
+                        .ordinal(0)
+                        .project(taskStateProject)
+                        .build()
+        );
+    }
+
+    private List<String> taskNames(TaskStateEntity state) {
+
+        return taskRepository.findAllByTaskStateIdOrderByPositionAsc(state.getId())
+                .stream()
+                .map(TaskEntity::getName)
+                .toList();
+    }
+
+    private long projectVersion() {
+
+        return projectVersionRepository.findById(project.getId()).orElseThrow().getVersion();
+    }
+
+    private static ProjectOwnershipProjection ownership(ProjectEntity ownedProject) {
+
+        Long ownerId = ownedProject.getAppUser().getId();
+
+        return new ProjectOwnershipProjection() {
+
+            @Override
+            public Long getProjectId() {
+                return ownedProject.getId();
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.api;
+
+import org.example.api.controllers.TaskImportController;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+TaskImportRankModeTest:
+Импорт тысяч строк в одну колонку в режиме rank: ключи не должны расти с каждой строкой,
+иначе после ~1500 строк они перестают помещаться в rank_key и все следующие строки падают.
+ */
+@SpringBootTest(properties = {
+        "tasks.ordering.mode=RANK",
+        "tasks.ordering.rank.rebalance-interval=P1D",
+        "tasks.import.chunk-size=500"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskImportRankModeTest {
+
+    private static final int ROWS_COUNT = 2000;
+
+    private static final int MAX_RANK_KEY_LENGTH = 16;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    private TaskStateEntity taskState;
+
+    @BeforeEach
+    void setUp() {
+
+        String suffix = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = userRepository.save(
+                    UserEntity.builder()
+                            .username("user-" + suffix)
+                            .password("password")
+                            .build()
+            );
+
+            ProjectEntity project = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("project-" + suffix)
+                            .appUser(user)
+                            .build()
+            );
+
+            projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 0));
+
+            taskState = taskStateRepository.save(
+                    TaskStateEntity.builder()
+                            .name("state")
+                            .ordinal(0)
+                            .project(project)
+                            .build()
+            );
+
+            taskRepository.save(
+                    TaskEntity.builder()
+                            .name("existing task")
+                            .description("description")
+                            .position(0)
+                            .rankKey("r")
+                            .taskState(taskState)
+                            .build()
+            );
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        });
+    }
+
+    @Test
+    void importJson_manyRowsIntoOneColumn_keepsRankKeysShortAndOrdered() throws Exception {
+
+        StringBuilder body = new StringBuilder("[");
+
+        for (int i = 0; i < ROWS_COUNT; i++) {
+
+            if (i > 0) {
+                body.append(',');
+            }
+
+            body.append(String.format(
+                    "{\"task_state_id\": %d, \"task_name\": \"task-%d\", \"description\": \"description\"}",
+                    taskState.getId(),
+                    i
+            ));
+        }
+
+        body.append(']');
+
+        mockMvc.perform(post(TaskImportController.IMPORT_TASKS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(ROWS_COUNT))
+                .andExpect(jsonPath("$.failedCount").value(0));
+
+        List<TaskEntity> tasks = taskRepository.findAllByTaskStateIdOrderByPositionAsc(taskState.getId());
+
+        assertEquals(ROWS_COUNT + 1, tasks.size());
+
+        // Порядок по rank key совпадает с порядком строк импорта
+        for (int i = 1; i < tasks.size(); i++) {
+
+            String rankKey = tasks.get(i).getRankKey();
+
+            assertTrue(tasks.get(i - 1).getRankKey().compareTo(rankKey) < 0, rankKey);
+            assertTrue(rankKey.length() <= MAX_RANK_KEY_LENGTH, rankKey);
+        }
+    }
+}
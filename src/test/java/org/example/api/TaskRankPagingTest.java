@@ -0,0 +1,188 @@
+package org.example.api;
+
+import org.example.api.controllers.TaskController;
+import org.example.store.entities.ProjectEntity;
+import org.example.store.entities.ProjectVersionEntity;
+import org.example.store.entities.TaskEntity;
+import org.example.store.entities.TaskStateEntity;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.ProjectRepository;
+import org.example.store.repositories.ProjectVersionRepository;
+import org.example.store.repositories.TaskRepository;
+import org.example.store.repositories.TaskStateRepository;
+import org.example.store.repositories.UserRepository;
+import org.example.utils.JwtUtil;
+import org.example.utils.PageCursorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+TaskRankPagingTest:
+Постраничная выдача в режиме rank должна отдавать и задачи без rank key (до перебалансировки), в том же
+порядке, что и выдача без пагинации: после задач с ключами, по position.
+ */
+@SpringBootTest(properties = {
+        "tasks.ordering.mode=RANK",
+        "tasks.ordering.rank.rebalance-interval=P1D"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskRankPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectVersionRepository projectVersionRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    private TaskStateEntity taskState;
+
+    @BeforeEach
+    void setUp() {
+
+        String suffix = UUID.randomUUID().toString();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            UserEntity user = userRepository.save(
+                    UserEntity.builder()
+                            .username("user-" + suffix)
+                            .password("password")
+                            .build()
+            );
+
+            ProjectEntity project = projectRepository.save(
+                    ProjectEntity.builder()
+                            .name("project-" + suffix)
+                            .appUser(user)
+                            .build()
+            );
+
+            projectVersionRepository.save(new ProjectVersionEntity(project.getId(), 0));
+
+            taskState = taskStateRepository.save(
+                    TaskStateEntity.builder()
+                            .name("state")
+                            .ordinal(0)
+                            .project(project)
+                            .build()
+            );
+
+            // Задача без ключа с наименьшей position всё равно идёт после задач с ключами
+            saveTask("unranked-first", 0, null);
+            saveTask("ranked-a", 1, "a");
+            saveTask("ranked-b", 2, "b");
+            saveTask("ranked-c", 3, "c");
+            saveTask("unranked-second", 4, null);
+
+            token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        });
+    }
+
+    @Test
+    void getTasksPage_rankMode_returnsTasksWithoutRankKeyLast() throws Exception {
+
+        MvcResult firstPage = mockMvc.perform(page(null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("ranked-a"))
+                .andExpect(jsonPath("$[1].name").value("ranked-b"))
+                .andExpect(jsonPath("$[1].position").value(1))
+                .andReturn();
+
+        MvcResult secondPage = mockMvc.perform(page(nextCursor(firstPage)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("ranked-c"))
+                .andExpect(jsonPath("$[1].name").value("unranked-first"))
+                .andExpect(jsonPath("$[1].position").value(3))
+                .andReturn();
+
+        MvcResult lastPage = mockMvc.perform(page(nextCursor(secondPage)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("unranked-second"))
+                .andExpect(jsonPath("$[0].position").value(4))
+                .andReturn();
+
+        assertNull(lastPage.getResponse().getHeader(PageCursorUtil.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getTasks_rankMode_matchesPagedOrder() throws Exception {
+
+        mockMvc.perform(get(TaskController.GET_TASKS, taskState.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[2].name").value("ranked-c"))
+                .andExpect(jsonPath("$[3].name").value("unranked-first"))
+                .andExpect(jsonPath("$[4].name").value("unranked-second"));
+    }
+
+    private MockHttpServletRequestBuilder page(String cursor) {
+
+        MockHttpServletRequestBuilder request = get(TaskController.GET_TASKS, taskState.getId())
+                .param("limit", "2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+
+        return cursor == null ? request : request.param("cursor", cursor);
+    }
+
+    private static String nextCursor(MvcResult result) {
+
+        String cursor = result.getResponse().getHeader(PageCursorUtil.NEXT_CURSOR_HEADER);
+
+        assertNotNull(cursor, "Expected the next page cursor");
+
+        return cursor;
+    }
+
+    private void saveTask(String name, int position, String rankKey) {
+
+        taskRepository.save(
+                TaskEntity.builder()
+                        .name(name)
+                        .description("description")
+                        .position(position)
+                        .rankKey(rankKey)
+                        .taskState(taskState)
+                        .build()
+        );
+    }
+}
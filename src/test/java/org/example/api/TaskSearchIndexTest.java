@@ -0,0 +1,112 @@
+package org.example.api;
+
+import org.example.api.controllers.helpers.TaskSearchIndex;
+import org.example.store.repositories.TaskSearchProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskSearchIndexTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long PROJECT_ID = 10L;
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+
+        taskSearchIndex = new TaskSearchIndex();
+
+        taskSearchIndex.index(USER_ID, PROJECT_ID, 1L, "Fix login page", "Users can't sign in");
+        taskSearchIndex.index(USER_ID, PROJECT_ID, 2L, "Write docs", "Describe the login flow");
+        taskSearchIndex.index(USER_ID, 20L, 3L, "Logging", "Collect application logs");
+        taskSearchIndex.index(2L, 30L, 4L, "Login", "Another user's task");
+    }
+
+    @Test
+    void search_nameMatchRanksAboveDescriptionMatch() {
+
+        assertEquals(List.of(1L, 2L), taskSearchIndex.search(USER_ID, "login", null, 10));
+    }
+
+    @Test
+    void search_matchesPrefix_ignoresCase_and_ranksByIdf() {
+
+        assertEquals(List.of(3L, 1L, 2L), taskSearchIndex.search(USER_ID, "LOG", null, 10));
+    }
+
+    @Test
+    void search_requiresAllTokens() {
+
+        assertEquals(List.of(1L), taskSearchIndex.search(USER_ID, "login pa", null, 10));
+    }
+
+    @Test
+    void search_filtersByProject_and_appliesLimit() {
+
+        assertEquals(List.of(3L), taskSearchIndex.search(USER_ID, "log", 20L, 10));
+        assertEquals(1, taskSearchIndex.search(USER_ID, "log", null, 1).size());
+    }
+
+    @Test
+    void index_replacesOldTerms_and_removeDropsTask() {
+
+        taskSearchIndex.index(USER_ID, PROJECT_ID, 1L, "Fix signup page", "Users can't register");
+
+        assertEquals(List.of(2L), taskSearchIndex.search(USER_ID, "login", null, 10));
+
+        taskSearchIndex.remove(USER_ID, 2L);
+
+        assertTrue(taskSearchIndex.search(USER_ID, "login", null, 10).isEmpty());
+        assertEquals(List.of(1L), taskSearchIndex.search(USER_ID, "signup", null, 10));
+    }
+
+    @Test
+    void rebuild_doesNotOverwriteTasksChangedDuringRebuild() {
+
+        taskSearchIndex.startRebuild();
+
+        taskSearchIndex.index(USER_ID, PROJECT_ID, 5L, "Fresh name", "Updated while rebuilding");
+        taskSearchIndex.rebuild(projection(5L, "Stale name", "Read before the update"));
+
+        taskSearchIndex.finishRebuild();
+
+        assertEquals(List.of(5L), taskSearchIndex.search(USER_ID, "fresh", null, 10));
+        assertTrue(taskSearchIndex.search(USER_ID, "stale", null, 10).isEmpty());
+    }
+
+    private static TaskSearchProjection projection(Long id, String name, String description) {
+
+        return new TaskSearchProjection() {
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public Long getProjectId() {
+                return PROJECT_ID;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return USER_ID;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.store.entities.UserEntity;
+import org.example.store.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private DataSource primaryDataSource;
+
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+
+        // Две независимые базы H2 в памяти вместо основного Postgres и реплики
+        primaryDataSource = database("primary");
+        replicaDataSource = database("replica");
+    }
+
+    @Test
+    void readOnlyTransaction_readsFromReplica() {
+
+        DataSource dataSource = routing(replicaDataSource);
+
+        assertEquals("replica", readMarker(dataSource, true));
+        assertEquals("primary", readMarker(dataSource, false));
+    }
+
+    @Test
+    void noReplica_readsFromPrimary() {
+
+        assertEquals("primary", readMarker(routing(null), true));
+    }
+
+    @Test
+    void replicaUnavailable_fallsBackToPrimary() {
+
+        // IFEXISTS=TRUE: подключение к несуществующей базе завершается ошибкой
+        DataSource unavailableReplica = new DriverManagerDataSource(
+                "jdbc:h2:mem:missing-" + UUID.randomUUID() + ";IFEXISTS=TRUE", "sa", "");
+
+        DataSource dataSource = routing(unavailableReplica);
+
+        assertEquals("primary", readMarker(dataSource, true));
+        assertEquals("primary", readMarker(dataSource, true));
+    }
+
+    /*
+    Маршрутизация через JpaTransactionManager, как в приложении: HibernateJpaDialect начинает транзакцию
+    и берёт соединение раньше, чем Spring выставляет флаг read-only. Реплика указывает на ту же базу H2,
+    что и основной пул, поэтому куда ушёл запрос, видно только по тому, из какого пула взято соединение.
+     */
+    @Nested
+    @SpringBootTest(properties = {
+            "datasource.replica.jdbc-url=jdbc:h2:mem:super_task_tracker;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+            "datasource.replica.username=sa",
+            "datasource.replica.password="
+    })
+    @ActiveProfiles("test")
+    class JpaRepositoryRouting {
+
+        @SpyBean(name = "replicaDataSource")
+        private HikariDataSource replicaDataSource;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Test
+        void readOnlyRepositoryCall_readsFromReplica() throws Exception {
+
+            assertInstanceOf(JpaTransactionManager.class, transactionManager);
+
+            clearInvocations(replicaDataSource);
+
+            // save идёт в транзакции на запись
+            UserEntity user = userRepository.save(
+                    UserEntity.builder()
+                            .username("user-" + UUID.randomUUID())
+                            .password("password")
+                            .build()
+            );
+
+            verify(replicaDataSource, never()).getConnection();
+
+            // Запросные методы репозитория выполняются в @Transactional(readOnly = true) из SimpleJpaRepository
+            assertTrue(userRepository.findByUsername(user.getUsername()).isPresent());
+
+            verify(replicaDataSource, atLeastOnce()).getConnection();
+        }
+    }
+
+    private DataSource routing(DataSource replica) {
+
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replica, Duration.ofMinutes(1)));
+    }
+
+    private static String readMarker(DataSource dataSource, boolean readOnly) {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+
+        return transactionTemplate.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class));
+    }
+
+    private static DataSource database(String name) {
+
+        // DB_CLOSE_DELAY=-1 держит базу в памяти между соединениями
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table marker (name varchar(16))");
+        jdbcTemplate.update("insert into marker values (?)", name);
+
+        return dataSource;
+    }
+}
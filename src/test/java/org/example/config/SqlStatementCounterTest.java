@@ -0,0 +1,64 @@
+package org.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+
+    @Test
+    void countsStatementsOnlyBetweenStartAndStop() {
+
+        sqlStatementCounter.inspect("select 1");
+
+        assertTrue(sqlStatementCounter.start());
+
+        sqlStatementCounter.inspect("select t.id from task t where t.task_state_id=?");
+        sqlStatementCounter.onLoad(new Object(), (Object) 1L, null, null, null);
+
+        RequestSqlStatistics statistics = sqlStatementCounter.stop();
+
+        sqlStatementCounter.inspect("select 2");
+
+        assertEquals(1, statistics.getStatements());
+        assertEquals(1, statistics.getEntityLoads());
+        assertNull(sqlStatementCounter.current());
+    }
+
+    @Test
+    void nestedStart_continuesCurrentStatistics() {
+
+        assertTrue(sqlStatementCounter.start());
+        assertFalse(sqlStatementCounter.start());
+
+        sqlStatementCounter.inspect("select 1");
+
+        assertEquals(1, sqlStatementCounter.stop().getStatements());
+    }
+
+    @Test
+    void repeatedShapes_collapseParameterLists() {
+
+        sqlStatementCounter.start();
+
+        for (int i = 0; i < 3; i++) {
+            sqlStatementCounter.inspect("select t.id from task t where t.task_state_id=?");
+        }
+
+        sqlStatementCounter.inspect("select p.id from project p where p.id in (?,?)");
+        sqlStatementCounter.inspect("select p.id from project p where p.id in (?, ?, ?)");
+        sqlStatementCounter.inspect("select 1");
+
+        List<Map.Entry<String, Integer>> repeatedShapes = sqlStatementCounter.stop().getRepeatedShapes(2);
+
+        assertEquals(2, repeatedShapes.size());
+        assertEquals("select t.id from task t where t.task_state_id=?", repeatedShapes.get(0).getKey());
+        assertEquals(3, repeatedShapes.get(0).getValue());
+        assertEquals("select p.id from project p where p.id in (?)", repeatedShapes.get(1).getKey());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.utils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "dasd231adsdge21352adadcxzcvhd321edsadadasdadxzxc3213dasdsxzcasdczdcszd";
+
+    private MeterRegistry meterRegistry;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        jwtUtil = new JwtUtil(SECRET, Duration.ofMinutes(30), 100, meterRegistry);
+    }
+
+    @Test
+    void validateTokenAndGetUser_returnsUsernameAndId() {
+
+        AuthenticatedUser user = jwtUtil.validateTokenAndGetUser(jwtUtil.generateToken("testUser", 42L));
+
+        assertNotNull(user);
+        assertEquals("testUser", user.getName());
+        assertEquals(42L, user.getId());
+    }
+
+    @Test
+    void validateTokenAndGetUser_repeatedToken_servedFromCache() {
+
+        String token = jwtUtil.generateToken("testUser", 42L);
+
+        assertSame(jwtUtil.validateTokenAndGetUser(token), jwtUtil.validateTokenAndGetUser(token));
+
+        assertEquals(1, meterRegistry.get("auth.jwt.validation").tag("result", "miss").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.validation").tag("result", "hit").timer().count());
+    }
+
+    @Test
+    void validateTokenAndGetUser_invalidSignature_throwsException() {
+
+        String token = jwtUtil.generateToken("testUser", 42L);
+
+        jwtUtil.validateTokenAndGetUser(token);
+
+        // Подделанный токен имеет другой хэш и не может попасть в кэш проверенных токенов
+        assertThrows(SignatureException.class,
+                () -> jwtUtil.validateTokenAndGetUser(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void validateTokenAndGetUser_expiredToken_throwsException() {
+
+        JwtUtil expiredJwtUtil = new JwtUtil(SECRET, Duration.ofMinutes(-1), 100, meterRegistry);
+
+        String token = expiredJwtUtil.generateToken("testUser", 42L);
+
+        assertThrows(ExpiredJwtException.class, () -> expiredJwtUtil.validateTokenAndGetUser(token));
+        assertThrows(ExpiredJwtException.class, () -> expiredJwtUtil.validateTokenAndGetUser(token));
+    }
+
+    @Test
+    void validateTokenAndGetUser_tokenFromAnotherInstance_isAccepted() {
+
+        String token = new JwtUtil(SECRET, Duration.ofMinutes(30), 100, meterRegistry).generateToken("testUser", 42L);
+
+        assertEquals("testUser", jwtUtil.validateTokenAndGetUser(token).getName());
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeyUtilTest {
+
+    @Test
+    void between_returnsKeyStrictlyBetweenNeighbours() {
+
+        String key = RankKeyUtil.between("a", "c");
+
+        assertTrue("a".compareTo(key) < 0);
+        assertTrue(key.compareTo("c") < 0);
+    }
+
+    @Test
+    void between_adjacentKeys_extendsKey() {
+
+        String key = RankKeyUtil.between("a", "b");
+
+        assertTrue("a".compareTo(key) < 0);
+        assertTrue(key.compareTo("b") < 0);
+        assertTrue(key.startsWith("a"));
+    }
+
+    @Test
+    void between_withoutNeighbours_successful() {
+
+        assertNotNull(RankKeyUtil.between(null, null));
+        assertTrue(RankKeyUtil.between(null, "1").compareTo("1") < 0);
+        assertTrue(RankKeyUtil.between("zz", null).compareTo("zz") > 0);
+    }
+
+    @Test
+    void between_wrongOrder_throwsException() {
+
+        assertThrows(IllegalArgumentException.class, () -> RankKeyUtil.between("c", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeyUtil.between("a", "a"));
+    }
+
+    @Test
+    void between_randomInserts_keepOrder() {
+
+        Random random = new Random(42);
+
+        List<String> keys = new ArrayList<>(RankKeyUtil.spread(10));
+
+        for (int i = 0; i < 10_000; i++) {
+
+            int index = random.nextInt(keys.size() + 1);
+
+            String left = index > 0 ? keys.get(index - 1) : null;
+            String right = index < keys.size() ? keys.get(index) : null;
+
+            String key = RankKeyUtil.between(left, right);
+
+            assertFalse(key.endsWith("0"));
+            keys.add(index, key);
+        }
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void after_repeatedAppends_keepKeyLengthBounded() {
+
+        String key = RankKeyUtil.spread(1).get(0);
+
+        for (int i = 0; i < 5000; i++) {
+
+            String next = RankKeyUtil.after(key);
+
+            assertTrue(key.compareTo(next) < 0);
+            assertFalse(next.endsWith("0"));
+            assertTrue(next.length() <= 6, next);
+
+            key = next;
+        }
+    }
+
+    @Test
+    void after_longKey_returnsShorterGreaterKey() {
+
+        String left = RankKeyUtil.between("r00001", "r00002");
+
+        String key = RankKeyUtil.after(left);
+
+        assertTrue(left.compareTo(key) < 0);
+        assertEquals("r00002", key);
+    }
+
+    @Test
+    void after_exhaustedKey_stillReturnsGreaterKey() {
+
+        assertTrue(RankKeyUtil.after("zzzzzz").compareTo("zzzzzz") > 0);
+        assertNotNull(RankKeyUtil.after(null));
+    }
+
+    @Test
+    void spread_afterKey_returnsAscendingKeysGreaterThanIt() {
+
+        List<String> keys = RankKeyUtil.spread("r", 2000);
+
+        assertEquals(2000, keys.size());
+        assertTrue("r".compareTo(keys.get(0)) < 0);
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertTrue(keys.get(i).length() <= 16, keys.get(i));
+        }
+    }
+
+    @Test
+    void spread_returnsAscendingKeys() {
+
+        List<String> keys = RankKeyUtil.spread(1000);
+
+        assertEquals(1000, keys.size());
+
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+}